@@ -0,0 +1,75 @@
+package com.dietmath.bench;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import com.dietmath.auth.UserAuthentication;
+
+import jakarta.servlet.http.Cookie;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+	private static final long USER_ID = 4711L;
+	private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+	private UserAuthentication sessionAuth;
+	private UserAuthentication tokenAuth;
+	private MockHttpServletRequest sessionRequest;
+	private MockHttpServletRequest tokenRequest;
+
+	@Setup
+	public void setUp() {
+		sessionAuth = new UserAuthentication("session", "", Duration.ofDays(7));
+		tokenAuth = new UserAuthentication("token", SECRET, Duration.ofDays(7));
+
+		sessionRequest = new MockHttpServletRequest();
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute(UserAuthentication.SESSION_USER_ID, USER_ID);
+		session.setAttribute(UserAuthentication.SESSION_USERNAME, "bench");
+		sessionRequest.setSession(session);
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		tokenAuth.signIn(new MockHttpServletRequest(), response, USER_ID, "bench");
+		String setCookie = response.getHeader(HttpHeaders.SET_COOKIE);
+		String value = setCookie.substring(setCookie.indexOf('=') + 1, setCookie.indexOf(';'));
+		tokenRequest = new MockHttpServletRequest();
+		tokenRequest.setCookies(new Cookie("JSESSIONID", "unused"), new Cookie(UserAuthentication.TOKEN_COOKIE, value));
+	}
+
+	@Benchmark
+	public Long sessionLookup() {
+		return sessionAuth.userId(sessionRequest);
+	}
+
+	@Benchmark
+	public Long tokenVerify() {
+		return tokenAuth.userId(tokenRequest);
+	}
+
+	@Benchmark
+	public String tokenIssue() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		tokenAuth.signIn(tokenRequest, response, USER_ID, "bench");
+		return response.getHeader(HttpHeaders.SET_COOKIE);
+	}
+}
@@ -0,0 +1,64 @@
+package com.dietmath.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dietmath.user.CalorieEngine;
+import com.dietmath.user.CalorieStrategy;
+import com.dietmath.user.CalorieTrajectory;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalorieBenchmark {
+	@Param({ "DYNAMIC", "FIXED" })
+	private CalorieStrategy strategy;
+
+	@Param({ "180" })
+	private int days;
+
+	private CalorieEngine engine;
+	private CalorieTrajectory trajectory;
+	private double weight;
+	private double goalWeight;
+	private int height;
+
+	@Setup
+	public void setUp() {
+		engine = new CalorieEngine();
+		trajectory = new CalorieTrajectory(days);
+		weight = 84.3;
+		goalWeight = 76.0;
+		height = 181;
+	}
+
+	@Benchmark
+	public double bmi() {
+		return engine.bmi(weight, height);
+	}
+
+	@Benchmark
+	public double target() {
+		return engine.target(weight, goalWeight, 120);
+	}
+
+	@Benchmark
+	public double trajectory() {
+		engine.fillTrajectory(strategy, weight, weight, goalWeight, 120, days, trajectory);
+		return trajectory.target(days - 1);
+	}
+}
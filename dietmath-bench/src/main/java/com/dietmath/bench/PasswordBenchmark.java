@@ -0,0 +1,58 @@
+package com.dietmath.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.dietmath.user.PasswordHasher;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+	private static final String PASSWORD = "correct horse battery staple";
+
+	@Param({ "10", "12" })
+	private int strength;
+
+	private BCryptPasswordEncoder encoder;
+	private PasswordHasher hasher;
+	private String hash;
+
+	@Setup
+	public void setUp() {
+		encoder = new BCryptPasswordEncoder(strength);
+		hasher = new PasswordHasher(strength, 0, 64, 60_000);
+		hash = encoder.encode(PASSWORD);
+	}
+
+	@TearDown
+	public void tearDown() {
+		hasher.destroy();
+	}
+
+	@Benchmark
+	public boolean matchesDirect() {
+		return encoder.matches(PASSWORD, hash);
+	}
+
+	@Benchmark
+	public boolean matchesOnHashPool() {
+		return hasher.matches(PASSWORD, hash);
+	}
+}
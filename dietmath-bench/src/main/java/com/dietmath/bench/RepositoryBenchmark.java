@@ -0,0 +1,94 @@
+package com.dietmath.bench;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.dietmath.DietMathApplication;
+import com.dietmath.user.CalorieStrategy;
+import com.dietmath.user.User;
+import com.dietmath.user.UserProfileService;
+import com.dietmath.user.UserProfileSnapshot;
+import com.dietmath.user.UserRepository;
+import com.dietmath.user.UserWeight;
+import com.dietmath.user.UserWeightRepository;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+	private static final String BENCH_USERNAME = "jmh-bench-user";
+	private static final int WEIGHT_ENTRIES = 365;
+
+	private ConfigurableApplicationContext context;
+	private UserRepository userRepository;
+	private UserWeightRepository userWeightRepository;
+	private UserProfileService userProfileService;
+	private Long userId;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(DietMathApplication.class)
+			.web(WebApplicationType.NONE)
+			.properties("dietmath.foods.import-on-startup=false")
+			.run();
+		userRepository = context.getBean(UserRepository.class);
+		userWeightRepository = context.getBean(UserWeightRepository.class);
+		userProfileService = context.getBean(UserProfileService.class);
+		User user = userRepository.findByUsername(BENCH_USERNAME)
+			.orElseGet(() -> userRepository.save(new User(BENCH_USERNAME, "not-a-real-hash")));
+		userId = user.getId();
+		if (userWeightRepository.findTopByUserIdOrderByRecordedAtDesc(userId).isEmpty()) {
+			for (int i = 0; i < WEIGHT_ENTRIES; i++) {
+				CalorieStrategy strategy = i % 30 == 0 ? CalorieStrategy.FIXED : CalorieStrategy.DYNAMIC;
+				userWeightRepository.save(new UserWeight(userId, BigDecimal.valueOf(90.0 - i * 0.03),
+					new BigDecimal("76.0"), LocalDate.now().plusDays(120), strategy));
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public User findUserById() {
+		return userRepository.findById(userId).orElseThrow();
+	}
+
+	@Benchmark
+	public UserWeight findLatestWeight() {
+		return userWeightRepository.findTopByUserIdOrderByRecordedAtDesc(userId).orElseThrow();
+	}
+
+	@Benchmark
+	public UserWeight findFixedBaseWeight() {
+		return userWeightRepository
+			.findTopByUserIdAndCalorieStrategyOrderByRecordedAtAsc(userId, CalorieStrategy.FIXED)
+			.orElseThrow();
+	}
+
+	@Benchmark
+	public UserProfileSnapshot loadProfileCached() {
+		return userProfileService.load(userId);
+	}
+}
@@ -0,0 +1,78 @@
+package com.dietmath.bench;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.dietmath.user.CalorieStrategy;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPageRenderBenchmark {
+	@Param({ "false", "true" })
+	private boolean showWeightForm;
+
+	private SpringTemplateEngine templateEngine;
+	private Context context;
+
+	@Setup
+	public void setUp() {
+		ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+		resolver.setPrefix("templates/");
+		resolver.setSuffix(".html");
+		resolver.setTemplateMode(TemplateMode.HTML);
+		resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		resolver.setCacheable(true);
+		templateEngine = new SpringTemplateEngine();
+		templateEngine.setTemplateResolver(resolver);
+
+		context = new Context();
+		context.setVariable("username", "bench");
+		context.setVariable("message", "");
+		context.setVariable("errorMessage", "");
+		context.setVariable("birthDate", LocalDate.of(1990, 5, 17));
+		context.setVariable("height", 181);
+		context.setVariable("showWeightForm", showWeightForm);
+		context.setVariable("hasWeight", true);
+		context.setVariable("weightDisplay", "84.3");
+		context.setVariable("goalWeightDisplay", "76");
+		context.setVariable("goalDateDisplay", "2027-03-01");
+		context.setVariable("strategyDisplay", "Dynamic");
+		context.setVariable("recordedAtDisplay", Instant.parse("2026-10-01T07:30:00Z").toString());
+		context.setVariable("weightValue", "84.3");
+		context.setVariable("goalWeightValue", "76");
+		context.setVariable("goalDateValue", "2027-03-01");
+		context.setVariable("strategyValue", CalorieStrategy.DYNAMIC);
+		context.setVariable("bmiText", "BMI: 25.7");
+		context.setVariable("calorieText", "Dynamic target: 2003 kcal");
+	}
+
+	@Benchmark
+	public int render() {
+		StringWriter writer = new StringWriter(8192);
+		templateEngine.process("user", context, writer);
+		return writer.getBuffer().length();
+	}
+}
@@ -0,0 +1,90 @@
+package com.dietmath.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LoadTest {
+	private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(10);
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		LoadTestConfig config = LoadTestConfig.parse(args);
+		Map<Session.Step, StepStats> stats = new EnumMap<>(Session.Step.class);
+		for (Session.Step step : Session.Step.values()) {
+			stats.put(step, new StepStats(step.label()));
+		}
+		HttpClient client = HttpClient.newBuilder()
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.connectTimeout(Duration.ofSeconds(5))
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.build();
+		String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+		LongAdder sessions = new LongAdder();
+		Map<Session.Step, LongAdder> aborted = new EnumMap<>(Session.Step.class);
+		for (Session.Step step : Session.Step.values()) {
+			aborted.put(step, new LongAdder());
+		}
+
+		System.out.printf(Locale.ROOT,
+			"Load test against %s: %d users, %d s ramp-up, %d s duration, %d ms think time.%n",
+			config.baseUrl(), config.users(), config.rampUp().toSeconds(), config.duration().toSeconds(),
+			config.thinkTime().toMillis());
+		long started = System.nanoTime();
+		long deadline = started + config.duration().toNanos();
+		long rampStepNanos = config.rampUp().toNanos() / config.users();
+		try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int user = 0; user < config.users(); user++) {
+				long startAt = started + user * rampStepNanos;
+				users.submit(() -> {
+					sleepUntil(startAt);
+					while (System.nanoTime() < deadline) {
+						Session.Step failed = new Session(client, config, stats, runId).run(deadline);
+						sessions.increment();
+						if (failed != null) {
+							aborted.get(failed).increment();
+						}
+						Thread.sleep(config.thinkTime());
+					}
+					return null;
+				});
+			}
+			users.shutdown();
+			while (!users.awaitTermination(PROGRESS_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)) {
+				System.out.printf(Locale.ROOT, "%5ds  %d sessions finished%n",
+					TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started), sessions.sum());
+			}
+		}
+		double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+		System.out.printf(Locale.ROOT, "%n%d sessions in %.1f s (%.1f sessions/s)%n%n", sessions.sum(), elapsedSeconds,
+			sessions.sum() / elapsedSeconds);
+		System.out.println(StepStats.header());
+		for (StepStats step : stats.values()) {
+			System.out.println(step.report(elapsedSeconds));
+		}
+		// A workload where every session dies at the same step measures nothing past it.
+		for (Map.Entry<Session.Step, LongAdder> entry : aborted.entrySet()) {
+			if (sessions.sum() > 0 && entry.getValue().sum() == sessions.sum()) {
+				System.err.printf(Locale.ROOT, "%nFAILED: all %d sessions aborted at step \"%s\".%n", sessions.sum(),
+					entry.getKey().label());
+				System.exit(1);
+			}
+		}
+	}
+
+	private static void sleepUntil(long nanoTime) throws InterruptedException {
+		long wait = nanoTime - System.nanoTime();
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.dietmath.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public record LoadTestConfig(URI baseUrl, int users, Duration rampUp, Duration duration, Duration thinkTime,
+	int diaryRounds) {
+
+	public static LoadTestConfig parse(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+				throw new IllegalArgumentException("Expected --name=value, got " + arg);
+			}
+			int split = arg.indexOf('=');
+			options.put(arg.substring(2, split), arg.substring(split + 1));
+		}
+		String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+		LoadTestConfig config = new LoadTestConfig(
+			URI.create(baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl),
+			Integer.parseInt(options.getOrDefault("users", "50")),
+			duration(options.getOrDefault("ramp-up", "10s")),
+			duration(options.getOrDefault("duration", "60s")),
+			duration(options.getOrDefault("think-time", "500ms")),
+			Integer.parseInt(options.getOrDefault("diary-rounds", "3")));
+		if (config.users() < 1 || config.duration().isZero() || config.diaryRounds() < 0) {
+			throw new IllegalArgumentException("users and duration must be positive, diary-rounds not negative.");
+		}
+		return config;
+	}
+
+	// Accepts 250ms, 30s, 5m or a plain number of seconds.
+	static Duration duration(String value) {
+		String text = value.strip().toLowerCase(Locale.ROOT);
+		if (text.endsWith("ms")) {
+			return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+		}
+		if (text.endsWith("s")) {
+			return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+		}
+		if (text.endsWith("m")) {
+			return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+		}
+		return Duration.ofSeconds(Long.parseLong(text));
+	}
+}
@@ -0,0 +1,194 @@
+package com.dietmath.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class Session {
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+	private static final Pattern FOOD_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+	private static final List<String> FOOD_QUERIES = List.of("app", "ban", "chick", "rice", "bread", "milk", "egg",
+		"oat", "yog", "pota", "toma", "chees");
+	private static final AtomicLong ACCOUNTS = new AtomicLong();
+
+	private final HttpClient client;
+	private final LoadTestConfig config;
+	private final Map<Step, StepStats> stats;
+	private final Map<String, String> cookies = new LinkedHashMap<>();
+	private final String runId;
+	private Step failedStep;
+
+	enum Step {
+		REGISTER("register"),
+		LOGIN("login"),
+		USER_PAGE("user page"),
+		ADD_WEIGHT("add weight"),
+		USER_PAGE_AFTER("user page again"),
+		AUTOCOMPLETE("autocomplete"),
+		SEARCH("search"),
+		DIARY_ADD("diary add"),
+		DIARY_DAY("diary day");
+
+		private final String label;
+
+		Step(String label) {
+			this.label = label;
+		}
+
+		String label() {
+			return label;
+		}
+	}
+
+	Session(HttpClient client, LoadTestConfig config, Map<Step, StepStats> stats, String runId) {
+		this.client = client;
+		this.config = config;
+		this.stats = stats;
+		this.runId = runId;
+	}
+
+	// Returns the step that ended the session early, or null when it ran to the end or out of time.
+	Step run(long deadlineNanos) throws InterruptedException {
+		runSteps(deadlineNanos);
+		return failedStep;
+	}
+
+	private void runSteps(long deadlineNanos) throws InterruptedException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String username = "lt" + runId + "-" + ACCOUNTS.incrementAndGet();
+		String password = "load-test-" + random.nextInt(1_000_000);
+		String credentials = form("username", username, "password", password);
+		if (send(Step.REGISTER, post("/register", credentials), 302) == null
+			|| !think(deadlineNanos) || send(Step.LOGIN, post("/login", credentials), 302) == null
+			|| !think(deadlineNanos) || send(Step.USER_PAGE, get("/user"), 200) == null
+			|| !think(deadlineNanos)) {
+			return;
+		}
+		double weight = 60 + random.nextInt(600) / 10.0;
+		String weightForm = form("weight", String.format(Locale.ROOT, "%.1f", weight),
+			"goalWeight", String.format(Locale.ROOT, "%.1f", weight - 5),
+			"goalDate", LocalDate.now().plusDays(90 + random.nextInt(180)).toString(),
+			"calorieStrategy", random.nextBoolean() ? "DYNAMIC" : "FIXED");
+		HttpResponse<String> saved = send(Step.ADD_WEIGHT, post("/user", weightForm), 200);
+		if (saved == null) {
+			return;
+		}
+		if (!saved.body().contains("Saved.")) {
+			stats.get(Step.ADD_WEIGHT).fail("not saved");
+			failedStep = Step.ADD_WEIGHT;
+			return;
+		}
+		if (!think(deadlineNanos) || send(Step.USER_PAGE_AFTER, get("/user"), 200) == null) {
+			return;
+		}
+		for (int round = 0; round < config.diaryRounds(); round++) {
+			String query = FOOD_QUERIES.get(random.nextInt(FOOD_QUERIES.size()));
+			if (!think(deadlineNanos)) {
+				return;
+			}
+			HttpResponse<String> suggestions = send(Step.AUTOCOMPLETE, get("/foods/autocomplete?q=" + query), 200);
+			if (suggestions == null || !think(deadlineNanos)
+				|| send(Step.SEARCH, get("/foods/search?q=" + query), 200) == null) {
+				return;
+			}
+			Matcher food = FOOD_ID.matcher(suggestions.body());
+			if (food.find()) {
+				String entry = String.format(Locale.ROOT, "{\"foodId\":%s,\"entryDate\":\"%s\",\"grams\":%d}",
+					food.group(1), LocalDate.now(), 50 + random.nextInt(250));
+				if (!think(deadlineNanos) || send(Step.DIARY_ADD, post("/diary", entry)
+					.setHeader("Content-Type", "application/json"), 201) == null) {
+					return;
+				}
+			}
+			if (!think(deadlineNanos) || send(Step.DIARY_DAY, get("/diary"), 200) == null) {
+				return;
+			}
+		}
+	}
+
+	private HttpResponse<String> send(Step step, HttpRequest.Builder request, int expectedStatus)
+		throws InterruptedException {
+		StepStats stepStats = stats.get(step);
+		if (!cookies.isEmpty()) {
+			request.header("Cookie", String.join("; ", cookies.entrySet().stream()
+				.map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+				.toList()));
+		}
+		long started = System.nanoTime();
+		HttpResponse<String> response;
+		try {
+			response = client.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+		} catch (IOException ex) {
+			stepStats.fail(ex.getClass().getSimpleName());
+			failedStep = step;
+			return null;
+		}
+		long elapsed = System.nanoTime() - started;
+		response.headers().allValues("Set-Cookie").forEach(this::storeCookie);
+		if (response.statusCode() != expectedStatus) {
+			stepStats.fail("HTTP " + response.statusCode());
+			failedStep = step;
+			return null;
+		}
+		stepStats.record(elapsed);
+		return response;
+	}
+
+	private void storeCookie(String header) {
+		int end = header.indexOf(';');
+		String pair = end >= 0 ? header.substring(0, end) : header;
+		int split = pair.indexOf('=');
+		if (split > 0) {
+			cookies.put(pair.substring(0, split).strip(), pair.substring(split + 1).strip());
+		}
+	}
+
+	// Sleeps a random 50-150% of the think time; false once the run is over.
+	private boolean think(long deadlineNanos) throws InterruptedException {
+		long thinkMillis = config.thinkTime().toMillis();
+		if (thinkMillis > 0) {
+			Thread.sleep(thinkMillis / 2 + ThreadLocalRandom.current().nextLong(thinkMillis + 1));
+		}
+		return System.nanoTime() < deadlineNanos;
+	}
+
+	private HttpRequest.Builder get(String path) {
+		return HttpRequest.newBuilder(uri(path)).GET();
+	}
+
+	private HttpRequest.Builder post(String path, String body) {
+		return HttpRequest.newBuilder(uri(path))
+			.header("Content-Type", "application/x-www-form-urlencoded")
+			.POST(HttpRequest.BodyPublishers.ofString(body));
+	}
+
+	private URI uri(String path) {
+		return URI.create(config.baseUrl() + path);
+	}
+
+	private static String form(String... pairs) {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < pairs.length; i += 2) {
+			if (!body.isEmpty()) {
+				body.append('&');
+			}
+			body.append(URLEncoder.encode(pairs[i], StandardCharsets.UTF_8)).append('=')
+				.append(URLEncoder.encode(pairs[i + 1], StandardCharsets.UTF_8));
+		}
+		return body.toString();
+	}
+}
@@ -0,0 +1,70 @@
+package com.dietmath.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+final class StepStats {
+	private final String name;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+	private long[] latencies = new long[1024];
+	private int count;
+
+	StepStats(String name) {
+		this.name = name;
+	}
+
+	String name() {
+		return name;
+	}
+
+	void record(long latencyNanos) {
+		lock.lock();
+		try {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = latencyNanos;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void fail(String reason) {
+		failures.computeIfAbsent(reason, key -> new LongAdder()).increment();
+	}
+
+	String report(double elapsedSeconds) {
+		long[] sorted;
+		lock.lock();
+		try {
+			sorted = Arrays.copyOf(latencies, count);
+		} finally {
+			lock.unlock();
+		}
+		Arrays.sort(sorted);
+		Map<String, Long> failed = new TreeMap<>();
+		failures.forEach((reason, adder) -> failed.put(reason, adder.sum()));
+		return String.format(Locale.ROOT, "%-18s %8d %8.1f %9.1f %9.1f %9.1f %9.1f  %s", name, sorted.length,
+			sorted.length / elapsedSeconds, millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99),
+			sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0, failed.isEmpty() ? "" : failed);
+	}
+
+	static String header() {
+		return String.format(Locale.ROOT, "%-18s %8s %8s %9s %9s %9s %9s  %s", "step", "ok", "req/s", "p50 ms",
+			"p95 ms", "p99 ms", "max ms", "failures");
+	}
+
+	private static double millis(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0.0;
+		}
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return sorted[Math.clamp(index, 0, sorted.length - 1)] / 1e6;
+	}
+}
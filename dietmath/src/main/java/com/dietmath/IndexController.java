@@ -15,13 +15,21 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.ui.Model;
 
+import com.dietmath.user.PasswordHasher;
+import com.dietmath.user.UserProfileCache;
+
 @Controller
 public class IndexController {
 	private final DataSource dataSource;
+	private final UserProfileCache userProfileCache;
+	private final PasswordHasher passwordHasher;
 	private final String readme;
 
-	public IndexController(DataSource dataSource) {
+	public IndexController(DataSource dataSource, UserProfileCache userProfileCache,
+		PasswordHasher passwordHasher) {
 		this.dataSource = dataSource;
+		this.userProfileCache = userProfileCache;
+		this.passwordHasher = passwordHasher;
 		this.readme = loadReadme();
 	}
 
@@ -49,6 +57,8 @@ public class IndexController {
 		} else if (!status.up && status.error != null) {
 			model.addAttribute("dbDetails", status.error);
 		}
+		model.addAttribute("profileCache", userProfileCache.stats());
+		model.addAttribute("passwordHashing", passwordHasher.stats());
 		return "db";
 	}
 
@@ -0,0 +1,6 @@
+package com.dietmath.auth;
+
+public enum AuthMode {
+	SESSION,
+	TOKEN
+}
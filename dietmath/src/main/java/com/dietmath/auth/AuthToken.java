@@ -0,0 +1,6 @@
+package com.dietmath.auth;
+
+import java.time.Instant;
+
+public record AuthToken(long userId, Instant expiresAt) {
+}
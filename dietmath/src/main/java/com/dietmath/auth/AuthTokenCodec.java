@@ -0,0 +1,78 @@
+package com.dietmath.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+public class AuthTokenCodec {
+	public static final int MIN_SECRET_BYTES = 32;
+
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final SecretKeySpec key;
+	private final ThreadLocal<Mac> macs;
+
+	public AuthTokenCodec(byte[] secret) {
+		if (secret.length < MIN_SECRET_BYTES) {
+			throw new IllegalArgumentException("Token secret must be at least " + MIN_SECRET_BYTES + " bytes.");
+		}
+		this.key = new SecretKeySpec(secret, ALGORITHM);
+		newMac();
+		this.macs = ThreadLocal.withInitial(this::newMac);
+	}
+
+	public String encode(AuthToken token) {
+		String payload = Long.toString(token.userId(), 36) + '.' + Long.toString(token.expiresAt().getEpochSecond(), 36);
+		return payload + '.' + ENCODER.encodeToString(sign(payload));
+	}
+
+	public AuthToken decode(String value, Instant now) {
+		if (value == null) {
+			return null;
+		}
+		int first = value.indexOf('.');
+		int second = first < 0 ? -1 : value.indexOf('.', first + 1);
+		if (first <= 0 || second <= first + 1 || second == value.length() - 1) {
+			return null;
+		}
+		long userId;
+		long expiresAt;
+		byte[] signature;
+		try {
+			userId = Long.parseLong(value, 0, first, 36);
+			expiresAt = Long.parseLong(value, first + 1, second, 36);
+			signature = DECODER.decode(value.substring(second + 1));
+		} catch (IllegalArgumentException ex) {
+			return null;
+		}
+		if (expiresAt <= now.getEpochSecond()) {
+			return null;
+		}
+		if (!MessageDigest.isEqual(signature, sign(value.substring(0, second)))) {
+			return null;
+		}
+		return new AuthToken(userId, Instant.ofEpochSecond(expiresAt));
+	}
+
+	private byte[] sign(String payload) {
+		return macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private Mac newMac() {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			return mac;
+		} catch (NoSuchAlgorithmException | InvalidKeyException ex) {
+			throw new IllegalStateException(ALGORITHM + " is not available.", ex);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.dietmath.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+@Component
+public class UserAuthentication {
+	public static final String SESSION_USER_ID = "userId";
+	public static final String SESSION_USERNAME = "username";
+	public static final String TOKEN_COOKIE = "DIETMATH_AUTH";
+
+	private final AuthMode mode;
+	private final Duration tokenTtl;
+	private final AuthTokenCodec codec;
+	private final Clock clock;
+
+	@Autowired
+	public UserAuthentication(@Value("${dietmath.auth.mode:session}") String mode,
+		@Value("${dietmath.auth.token-secret:}") String tokenSecret,
+		@Value("${dietmath.auth.token-ttl:7d}") Duration tokenTtl) {
+		this(AuthMode.valueOf(mode.trim().toUpperCase(Locale.ROOT)), tokenSecret, tokenTtl, Clock.systemUTC());
+	}
+
+	public UserAuthentication(AuthMode mode, String tokenSecret, Duration tokenTtl, Clock clock) {
+		this.mode = mode;
+		this.tokenTtl = tokenTtl;
+		this.clock = clock;
+		if (mode == AuthMode.TOKEN) {
+			byte[] secret = tokenSecret.getBytes(StandardCharsets.UTF_8);
+			if (secret.length < AuthTokenCodec.MIN_SECRET_BYTES) {
+				throw new IllegalStateException("dietmath.auth.token-secret must be at least "
+					+ AuthTokenCodec.MIN_SECRET_BYTES + " bytes when dietmath.auth.mode=token.");
+			}
+			this.codec = new AuthTokenCodec(secret);
+		} else {
+			this.codec = null;
+		}
+	}
+
+	public AuthMode mode() {
+		return mode;
+	}
+
+	public Long userId(HttpServletRequest request) {
+		if (mode == AuthMode.TOKEN) {
+			AuthToken token = codec.decode(cookieValue(request), clock.instant());
+			return token != null ? token.userId() : null;
+		}
+		HttpSession session = request.getSession(false);
+		if (session == null) {
+			return null;
+		}
+		Object value = session.getAttribute(SESSION_USER_ID);
+		if (value instanceof Long) {
+			return (Long) value;
+		}
+		if (value instanceof Integer) {
+			return ((Integer) value).longValue();
+		}
+		return null;
+	}
+
+	public void signIn(HttpServletRequest request, HttpServletResponse response, Long userId, String username) {
+		if (mode == AuthMode.TOKEN) {
+			Instant expiresAt = clock.instant().plus(tokenTtl);
+			writeCookie(request, response, codec.encode(new AuthToken(userId, expiresAt)), tokenTtl);
+			return;
+		}
+		HttpSession session = request.getSession();
+		session.setAttribute(SESSION_USER_ID, userId);
+		session.setAttribute(SESSION_USERNAME, username);
+	}
+
+	public void signOut(HttpServletRequest request, HttpServletResponse response) {
+		if (mode == AuthMode.TOKEN) {
+			writeCookie(request, response, "", Duration.ZERO);
+			return;
+		}
+		HttpSession session = request.getSession(false);
+		if (session != null) {
+			session.invalidate();
+		}
+	}
+
+	private static String cookieValue(HttpServletRequest request) {
+		Cookie[] cookies = request.getCookies();
+		if (cookies == null) {
+			return null;
+		}
+		for (Cookie cookie : cookies) {
+			if (TOKEN_COOKIE.equals(cookie.getName())) {
+				return cookie.getValue();
+			}
+		}
+		return null;
+	}
+
+	private static void writeCookie(HttpServletRequest request, HttpServletResponse response, String value,
+		Duration maxAge) {
+		ResponseCookie cookie = ResponseCookie.from(TOKEN_COOKIE, value)
+			.path("/")
+			.httpOnly(true)
+			.secure(request.isSecure())
+			.sameSite("Lax")
+			.maxAge(maxAge)
+			.build();
+		response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+	}
+}
@@ -0,0 +1,36 @@
+package com.dietmath.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dietmath.bulk.dto.BulkDiaryItem;
+import com.dietmath.bulk.dto.BulkItemResult;
+import com.dietmath.bulk.dto.BulkWeightItem;
+
+public class BulkBatch {
+	public static final String WEIGHT = "weight";
+	public static final String DIARY = "diary";
+
+	final List<Pending<BulkWeightItem>> weights = new ArrayList<>();
+	final List<Pending<BulkDiaryItem>> diary = new ArrayList<>();
+	final List<BulkItemResult> rejected = new ArrayList<>();
+
+	public void addWeight(int index, BulkWeightItem item) {
+		weights.add(new Pending<>(index, item));
+	}
+
+	public void addDiary(int index, BulkDiaryItem item) {
+		diary.add(new Pending<>(index, item));
+	}
+
+	public void reject(String type, int index, String error) {
+		rejected.add(BulkItemResult.rejected(type, index, error));
+	}
+
+	public int size() {
+		return weights.size() + diary.size() + rejected.size();
+	}
+
+	record Pending<T>(int index, T item) {
+	}
+}
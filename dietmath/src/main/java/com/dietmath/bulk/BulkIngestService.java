@@ -0,0 +1,216 @@
+package com.dietmath.bulk;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dietmath.bulk.BulkBatch.Pending;
+import com.dietmath.bulk.dto.BulkDiaryItem;
+import com.dietmath.bulk.dto.BulkItemResult;
+import com.dietmath.bulk.dto.BulkResult;
+import com.dietmath.bulk.dto.BulkWeightItem;
+import com.dietmath.diary.FoodUsageService;
+import com.dietmath.diary.dto.DiaryEntryRequest;
+import com.dietmath.food.BuiltinFoodCatalog;
+import com.dietmath.user.CalorieStrategy;
+import com.dietmath.user.UserProfileService;
+import com.dietmath.user.WeightTrend;
+import com.dietmath.user.WeightTrendService;
+
+@Service
+public class BulkIngestService {
+	static final int ID_BLOCK_SIZE = 50;
+	private static final int JDBC_BATCH_SIZE = 500;
+	private static final BigDecimal MAX_WEIGHT = new BigDecimal("10000");
+	private static final BigDecimal MAX_GRAMS = new BigDecimal(DiaryEntryRequest.MAX_GRAMS);
+	private static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+
+	private static final String RESERVE_IDS_SQL = "SELECT nextval(?::regclass) FROM generate_series(1, ?)";
+	private static final String AVAILABLE_FOODS_SQL = """
+		SELECT id FROM foods
+		WHERE id = ANY (?) AND (source = 'BUILTIN' OR user_id = ?)
+		""";
+	private static final String INSERT_WEIGHT_SQL = """
+		INSERT INTO user_weights (id, user_id, weight, goal_weight, goal_date, calorie_strategy, recorded_at)
+		VALUES (?, ?, ?, ?, ?, ?, ?)
+		""";
+	private static final String INSERT_DIARY_SQL = """
+		INSERT INTO diary_entries (id, user_id, food_id, entry_date, grams, created_at)
+		VALUES (?, ?, ?, ?, ?, ?)
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final UserProfileService userProfileService;
+	private final WeightTrendService weightTrendService;
+	private final FoodUsageService foodUsageService;
+	private final BuiltinFoodCatalog foodCatalog;
+
+	public BulkIngestService(JdbcTemplate jdbcTemplate, UserProfileService userProfileService,
+		WeightTrendService weightTrendService, FoodUsageService foodUsageService, BuiltinFoodCatalog foodCatalog) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.userProfileService = userProfileService;
+		this.weightTrendService = weightTrendService;
+		this.foodUsageService = foodUsageService;
+		this.foodCatalog = foodCatalog;
+	}
+
+	@Transactional
+	public BulkResult ingest(Long userId, BulkBatch batch) {
+		long started = System.nanoTime();
+		Instant now = Instant.now();
+		List<BulkItemResult> results = new ArrayList<>(batch.size());
+		results.addAll(batch.rejected);
+
+		List<Pending<BulkWeightItem>> weights = new ArrayList<>(batch.weights.size());
+		for (Pending<BulkWeightItem> pending : batch.weights) {
+			String error = validateWeight(pending.item(), now);
+			if (error != null) {
+				results.add(BulkItemResult.rejected(BulkBatch.WEIGHT, pending.index(), error));
+			} else {
+				weights.add(pending);
+			}
+		}
+
+		Set<Long> availableFoods = availableFoods(userId, batch.diary);
+		List<Pending<BulkDiaryItem>> diary = new ArrayList<>(batch.diary.size());
+		for (Pending<BulkDiaryItem> pending : batch.diary) {
+			String error = validateDiary(pending.item(), availableFoods);
+			if (error != null) {
+				results.add(BulkItemResult.rejected(BulkBatch.DIARY, pending.index(), error));
+			} else {
+				diary.add(pending);
+			}
+		}
+
+		long[] weightIds = reserveIds("user_weights_id_seq", weights.size());
+		Timestamp createdAt = Timestamp.from(now);
+		List<Object[]> weightRows = new ArrayList<>(weights.size());
+		List<WeightTrend.Reading> readings = new ArrayList<>(weights.size());
+		for (int i = 0; i < weights.size(); i++) {
+			BulkWeightItem item = weights.get(i).item();
+			CalorieStrategy strategy = item.calorieStrategy() != null ? item.calorieStrategy() : CalorieStrategy.DYNAMIC;
+			Instant recordedAt = item.recordedAt() != null ? item.recordedAt() : now;
+			weightRows.add(new Object[] { weightIds[i], userId, item.weight(), item.goalWeight(), item.goalDate(),
+				strategy.name(), Timestamp.from(recordedAt) });
+			readings.add(new WeightTrend.Reading(weightIds[i], item.weight().doubleValue(), recordedAt));
+			results.add(BulkItemResult.inserted(BulkBatch.WEIGHT, weights.get(i).index(), weightIds[i]));
+		}
+		jdbcTemplate.batchUpdate(INSERT_WEIGHT_SQL, weightRows, JDBC_BATCH_SIZE, (statement, row) -> {
+			statement.setLong(1, (Long) row[0]);
+			statement.setLong(2, (Long) row[1]);
+			statement.setBigDecimal(3, (BigDecimal) row[2]);
+			statement.setObject(4, row[3], Types.NUMERIC);
+			statement.setObject(5, row[4], Types.DATE);
+			statement.setString(6, (String) row[5]);
+			statement.setTimestamp(7, (Timestamp) row[6]);
+		});
+		weightTrendService.record(userId, readings);
+
+		long[] diaryIds = reserveIds("diary_entries_id_seq", diary.size());
+		List<Object[]> diaryRows = new ArrayList<>(diary.size());
+		for (int i = 0; i < diary.size(); i++) {
+			BulkDiaryItem item = diary.get(i).item();
+			diaryRows.add(new Object[] { diaryIds[i], userId, item.foodId(), item.entryDate(), item.grams(),
+				createdAt });
+			results.add(BulkItemResult.inserted(BulkBatch.DIARY, diary.get(i).index(), diaryIds[i]));
+		}
+		jdbcTemplate.batchUpdate(INSERT_DIARY_SQL, diaryRows, JDBC_BATCH_SIZE, (statement, row) -> {
+			statement.setLong(1, (Long) row[0]);
+			statement.setLong(2, (Long) row[1]);
+			statement.setLong(3, (Long) row[2]);
+			statement.setObject(4, row[3], Types.DATE);
+			statement.setBigDecimal(5, (BigDecimal) row[4]);
+			statement.setTimestamp(6, (Timestamp) row[5]);
+		});
+
+		if (!weights.isEmpty()) {
+			userProfileService.evict(userId);
+		}
+		if (!diary.isEmpty()) {
+			foodUsageService.evict(userId);
+		}
+		results.sort(Comparator.comparingInt(BulkItemResult::index).thenComparing(BulkItemResult::type));
+		int inserted = weights.size() + diary.size();
+		return new BulkResult(inserted, results.size() - inserted, (System.nanoTime() - started) / 1_000_000,
+			results);
+	}
+
+	private long[] reserveIds(String sequence, int count) {
+		long[] ids = new long[count];
+		if (count == 0) {
+			return ids;
+		}
+		int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+		List<Long> blockEnds = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, sequence, blocks);
+		int i = 0;
+		for (long blockEnd : blockEnds) {
+			for (long id = blockEnd - ID_BLOCK_SIZE + 1; id <= blockEnd && i < count; id++) {
+				ids[i++] = id;
+			}
+		}
+		return ids;
+	}
+
+	private Set<Long> availableFoods(Long userId, List<Pending<BulkDiaryItem>> diary) {
+		Set<Long> available = new HashSet<>();
+		Set<Long> requested = new HashSet<>();
+		for (Pending<BulkDiaryItem> pending : diary) {
+			Long foodId = pending.item().foodId();
+			if (foodId != null) {
+				(foodCatalog.contains(foodId) ? available : requested).add(foodId);
+			}
+		}
+		if (requested.isEmpty()) {
+			return available;
+		}
+		Long[] ids = requested.toArray(Long[]::new);
+		available.addAll(jdbcTemplate.query(connection -> {
+			var statement = connection.prepareStatement(AVAILABLE_FOODS_SQL);
+			statement.setArray(1, connection.createArrayOf("bigint", ids));
+			statement.setLong(2, userId);
+			return statement;
+		}, (rs, rowNum) -> rs.getLong(1)));
+		return available;
+	}
+
+	private static String validateWeight(BulkWeightItem item, Instant now) {
+		if (item.weight() == null) {
+			return "Weight is required.";
+		}
+		if (item.weight().signum() <= 0 || item.weight().compareTo(MAX_WEIGHT) >= 0) {
+			return "Weight must be greater than 0 and less than " + MAX_WEIGHT + ".";
+		}
+		if (item.goalWeight() != null
+			&& (item.goalWeight().signum() <= 0 || item.goalWeight().compareTo(MAX_WEIGHT) >= 0)) {
+			return "Goal weight must be greater than 0 and less than " + MAX_WEIGHT + ".";
+		}
+		if (item.recordedAt() != null && item.recordedAt().isAfter(now.plus(CLOCK_SKEW))) {
+			return "Recorded time is in the future.";
+		}
+		return null;
+	}
+
+	static String validateDiary(BulkDiaryItem item, Set<Long> availableFoods) {
+		if (item.foodId() == null || !availableFoods.contains(item.foodId())) {
+			return "Food not found.";
+		}
+		if (item.entryDate() == null) {
+			return "Entry date is required.";
+		}
+		if (item.grams() == null || item.grams().signum() <= 0 || item.grams().compareTo(MAX_GRAMS) > 0) {
+			return "Grams must be greater than 0 and at most " + MAX_GRAMS + ".";
+		}
+		return null;
+	}
+}
@@ -0,0 +1,7 @@
+package com.dietmath.bulk.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record BulkDiaryItem(Long foodId, LocalDate entryDate, BigDecimal grams) {
+}
@@ -0,0 +1,12 @@
+package com.dietmath.bulk.dto;
+
+public record BulkItemResult(String type, int index, Long id, String error) {
+
+	public static BulkItemResult inserted(String type, int index, long id) {
+		return new BulkItemResult(type, index, id, null);
+	}
+
+	public static BulkItemResult rejected(String type, int index, String error) {
+		return new BulkItemResult(type, index, null, error);
+	}
+}
@@ -0,0 +1,28 @@
+package com.dietmath.bulk.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.dietmath.user.CalorieStrategy;
+
+public record BulkLine(
+	String type,
+	BigDecimal weight,
+	BigDecimal goalWeight,
+	LocalDate goalDate,
+	CalorieStrategy calorieStrategy,
+	Instant recordedAt,
+	Long foodId,
+	LocalDate entryDate,
+	BigDecimal grams
+) {
+
+	public BulkWeightItem toWeightItem() {
+		return new BulkWeightItem(weight, goalWeight, goalDate, calorieStrategy, recordedAt);
+	}
+
+	public BulkDiaryItem toDiaryItem() {
+		return new BulkDiaryItem(foodId, entryDate, grams);
+	}
+}
@@ -0,0 +1,6 @@
+package com.dietmath.bulk.dto;
+
+import java.util.List;
+
+public record BulkRequest(List<BulkWeightItem> weights, List<BulkDiaryItem> diary) {
+}
@@ -0,0 +1,6 @@
+package com.dietmath.bulk.dto;
+
+import java.util.List;
+
+public record BulkResult(int inserted, int rejected, long elapsedMillis, List<BulkItemResult> results) {
+}
@@ -0,0 +1,11 @@
+package com.dietmath.bulk.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.dietmath.user.CalorieStrategy;
+
+public record BulkWeightItem(BigDecimal weight, BigDecimal goalWeight, LocalDate goalDate,
+	CalorieStrategy calorieStrategy, Instant recordedAt) {
+}
@@ -0,0 +1,71 @@
+package com.dietmath.db;
+
+import java.time.Clock;
+import java.time.Year;
+import java.time.ZoneOffset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PartitionMaintenance {
+	private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+	private static final String CREATE_SQL = "SELECT create_yearly_partition(?, ?, ?)";
+	private static final String[][] PARTITIONED_TABLES = {
+		{ "diary_entries", "entry_date" },
+		{ "user_weights", "recorded_at" }
+	};
+
+	private final JdbcTemplate jdbcTemplate;
+	private final int yearsAhead;
+	private final Clock clock;
+
+	@Autowired
+	public PartitionMaintenance(JdbcTemplate jdbcTemplate,
+		@Value("${dietmath.partitions.years-ahead:1}") int yearsAhead) {
+		this(jdbcTemplate, yearsAhead, Clock.systemUTC());
+	}
+
+	PartitionMaintenance(JdbcTemplate jdbcTemplate, int yearsAhead, Clock clock) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.yearsAhead = Math.max(1, yearsAhead);
+		this.clock = clock;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onStartup() {
+		ensurePartitions();
+	}
+
+	@Scheduled(cron = "${dietmath.partitions.cron:0 17 3 * * *}", zone = "UTC")
+	public void ensurePartitions() {
+		int currentYear = Year.now(clock.withZone(ZoneOffset.UTC)).getValue();
+		for (String[] table : PARTITIONED_TABLES) {
+			for (int year = currentYear; year <= currentYear + yearsAhead; year++) {
+				try {
+					Integer moved = jdbcTemplate.queryForObject(CREATE_SQL, Integer.class, table[0], table[1], year);
+					if (moved == null) {
+						continue;
+					}
+					if (moved > 0) {
+						log.warn("Created partition {}_{} and moved {} rows into it from the default partition.",
+							table[0], year, moved);
+					} else {
+						log.info("Created partition {}_{}.", table[0], year);
+					}
+				} catch (DataAccessException ex) {
+					log.warn("Creating partition {}_{} failed: {}", table[0], year, ex.getMessage(), ex);
+				}
+			}
+		}
+	}
+}
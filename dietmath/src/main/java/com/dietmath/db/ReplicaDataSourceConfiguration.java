@@ -0,0 +1,67 @@
+package com.dietmath.db;
+
+import java.sql.Connection;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("dietmath.datasource.replica.url")
+public class ReplicaDataSourceConfiguration {
+
+	@Bean(defaultCandidate = false)
+	@ConfigurationProperties("spring.datasource.hikari")
+	HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean(defaultCandidate = false)
+	HikariDataSource replicaDataSource(DataSourceProperties properties,
+		@Value("${dietmath.datasource.replica.url}") String url,
+		@Value("${dietmath.datasource.replica.username:}") String username,
+		@Value("${dietmath.datasource.replica.password:}") String password,
+		@Value("${dietmath.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName("replica");
+		dataSource.setJdbcUrl(url);
+		dataSource.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+		dataSource.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+		dataSource.setMaximumPoolSize(maximumPoolSize);
+		dataSource.setReadOnly(true);
+		// Start even when the replica is down; reads stay on the primary until the health check succeeds.
+		dataSource.setInitializationFailTimeout(-1);
+		return dataSource;
+	}
+
+	@Bean
+	ReplicaHealth replicaHealth(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+		@Value("${dietmath.datasource.replica.max-lag:10s}") Duration maxLag) {
+		return new ReplicaHealth(replicaDataSource, maxLag);
+	}
+
+	@Bean
+	@Primary
+	DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+		@Qualifier("replicaDataSource") DataSource replicaDataSource, ReplicaHealth replicaHealth) {
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+		dataSource.setReadOnlyDataSource(
+			new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaHealth));
+		dataSource.setDefaultAutoCommit(true);
+		dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		return dataSource;
+	}
+}
@@ -0,0 +1,93 @@
+package com.dietmath.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+public class ReplicaHealth implements MeterBinder {
+	private static final Logger log = LoggerFactory.getLogger(ReplicaHealth.class);
+
+	private static final String LAG_SQL = """
+		SELECT CASE
+		    WHEN NOT pg_is_in_recovery() THEN 0
+		    WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+		    WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+		    ELSE COALESCE(EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()), 0)
+		END
+		""";
+
+	private final DataSource replica;
+	private final double maxLagSeconds;
+	private volatile boolean usable;
+	private volatile double lagSeconds = Double.NaN;
+
+	public ReplicaHealth(DataSource replica, Duration maxLag) {
+		this.replica = replica;
+		this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+	}
+
+	public boolean isUsable() {
+		return usable;
+	}
+
+	public double lagSeconds() {
+		return lagSeconds;
+	}
+
+	public void markDown(SQLException cause) {
+		if (usable) {
+			log.warn("Read replica unavailable, routing reads to the primary: {}", cause.getMessage());
+		}
+		usable = false;
+		lagSeconds = Double.NaN;
+	}
+
+	@Scheduled(initialDelay = 0, fixedDelayString = "${dietmath.datasource.replica.check-interval-ms:5000}")
+	public void check() {
+		Double lag;
+		try (Connection connection = replica.getConnection();
+			Statement statement = connection.createStatement();
+			ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+			resultSet.next();
+			double value = resultSet.getDouble(1);
+			lag = resultSet.wasNull() ? null : value;
+		} catch (SQLException ex) {
+			markDown(ex);
+			return;
+		}
+		boolean nowUsable = lag != null && lag <= maxLagSeconds;
+		if (nowUsable != usable) {
+			if (nowUsable) {
+				log.info("Read replica is in sync (lag {} s), routing read-only transactions to it.", lag);
+			} else {
+				log.warn("Read replica lag {} exceeds {} s, routing reads to the primary.",
+					lag != null ? lag + " s" : "is unknown (not streaming)", maxLagSeconds);
+			}
+		}
+		lagSeconds = lag != null ? lag : Double.NaN;
+		usable = nowUsable;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("dietmath.datasource.replica.lag", this, ReplicaHealth::lagSeconds)
+			.description("Replay lag of the read replica")
+			.baseUnit("seconds")
+			.register(registry);
+		Gauge.builder("dietmath.datasource.replica.usable", this, health -> health.isUsable() ? 1 : 0)
+			.description("Whether read-only transactions are routed to the replica")
+			.register(registry);
+	}
+}
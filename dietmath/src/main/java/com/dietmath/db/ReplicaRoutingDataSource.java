@@ -0,0 +1,44 @@
+package com.dietmath.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+	private static final String PRIMARY = "primary";
+	private static final String REPLICA = "replica";
+
+	private final DataSource primary;
+	private final ReplicaHealth health;
+
+	ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealth health) {
+		this.primary = primary;
+		this.health = health;
+		setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return health.isUsable() ? REPLICA : PRIMARY;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (!health.isUsable()) {
+			return primary.getConnection();
+		}
+		try {
+			return super.getConnection();
+		} catch (SQLException ex) {
+			health.markDown(ex);
+			return primary.getConnection();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.dietmath.diary;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+@Entity
+@Immutable
+@IdClass(DailyTotal.Key.class)
+@Table(name = "daily_totals")
+public class DailyTotal {
+	@Id
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Id
+	@Column(name = "entry_date", nullable = false)
+	private LocalDate entryDate;
+
+	@Column(nullable = false, precision = 12, scale = 2)
+	private BigDecimal calories;
+
+	@Column(nullable = false, precision = 12, scale = 2)
+	private BigDecimal grams;
+
+	@Column(name = "entry_count", nullable = false)
+	private int entryCount;
+
+	protected DailyTotal() {
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public LocalDate getEntryDate() {
+		return entryDate;
+	}
+
+	public BigDecimal getCalories() {
+		return calories;
+	}
+
+	public BigDecimal getGrams() {
+		return grams;
+	}
+
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	public static class Key implements Serializable {
+		private Long userId;
+		private LocalDate entryDate;
+
+		protected Key() {
+		}
+
+		public Key(Long userId, LocalDate entryDate) {
+			this.userId = userId;
+			this.entryDate = entryDate;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Key key)) {
+				return false;
+			}
+			return Objects.equals(userId, key.userId) && Objects.equals(entryDate, key.entryDate);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(userId, entryDate);
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package com.dietmath.diary;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DailyTotalRepository extends JpaRepository<DailyTotal, DailyTotal.Key> {
+	Optional<DailyTotal> findByUserIdAndEntryDate(Long userId, LocalDate entryDate);
+	List<DailyTotal> findByUserIdAndEntryDateBetweenOrderByEntryDateAsc(Long userId, LocalDate from, LocalDate to);
+}
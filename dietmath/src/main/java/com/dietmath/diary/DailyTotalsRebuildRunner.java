@@ -0,0 +1,23 @@
+package com.dietmath.diary;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DailyTotalsRebuildRunner implements ApplicationRunner {
+	private static final String REBUILD_OPTION = "rebuild-daily-totals";
+
+	private final DailyTotalsRebuilder rebuilder;
+
+	public DailyTotalsRebuildRunner(DailyTotalsRebuilder rebuilder) {
+		this.rebuilder = rebuilder;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (args.containsOption(REBUILD_OPTION)) {
+			rebuilder.rebuild();
+		}
+	}
+}
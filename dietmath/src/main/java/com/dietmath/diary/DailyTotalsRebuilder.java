@@ -0,0 +1,88 @@
+package com.dietmath.diary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class DailyTotalsRebuilder {
+	private static final Logger log = LoggerFactory.getLogger(DailyTotalsRebuilder.class);
+
+	private static final String USER_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM users";
+	private static final String LOCK_SQL = "LOCK TABLE diary_entries IN SHARE MODE";
+	private static final String DELETE_SQL = "DELETE FROM daily_totals WHERE user_id BETWEEN ? AND ?";
+	private static final String INSERT_SQL = """
+		INSERT INTO daily_totals (user_id, entry_date, calories, grams, entry_count)
+		SELECT user_id, entry_date, SUM(calories), SUM(grams), COUNT(*)
+		FROM diary_entries
+		WHERE user_id BETWEEN ? AND ?
+		GROUP BY user_id, entry_date
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int usersPerChunk;
+	private final int threads;
+
+	public DailyTotalsRebuilder(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+		@Value("${dietmath.daily-totals.rebuild.users-per-chunk:500}") int usersPerChunk,
+		@Value("${dietmath.daily-totals.rebuild.threads:4}") int threads) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.usersPerChunk = Math.max(1, usersPerChunk);
+		this.threads = Math.max(1, threads);
+	}
+
+	public long rebuild() {
+		long started = System.nanoTime();
+		long[] range = jdbcTemplate.queryForObject(USER_RANGE_SQL,
+			(rs, rowNum) -> new long[] { rs.getLong(1), rs.getLong(2) });
+		if (range == null || range[1] == 0) {
+			log.info("Daily totals rebuild skipped, no users.");
+			return 0;
+		}
+		List<Future<Integer>> chunks = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (long from = range[0]; from <= range[1]; from += usersPerChunk) {
+				long to = Math.min(range[1], from + usersPerChunk - 1);
+				long chunkFrom = from;
+				chunks.add(executor.submit(() -> rebuildChunk(chunkFrom, to)));
+			}
+			long rows = 0;
+			for (Future<Integer> chunk : chunks) {
+				rows += chunk.get();
+			}
+			log.info("Rebuilt {} daily total rows in {} chunks in {} ms.", rows, chunks.size(),
+				(System.nanoTime() - started) / 1_000_000);
+			return rows;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Daily totals rebuild was interrupted.", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException("Daily totals rebuild failed: " + ex.getCause().getMessage(), ex.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private int rebuildChunk(long fromUserId, long toUserId) {
+		Integer rows = transactionTemplate.execute(status -> {
+			jdbcTemplate.execute(LOCK_SQL);
+			jdbcTemplate.update(DELETE_SQL, fromUserId, toUserId);
+			return jdbcTemplate.update(INSERT_SQL, fromUserId, toUserId);
+		});
+		return rows == null ? 0 : rows;
+	}
+}
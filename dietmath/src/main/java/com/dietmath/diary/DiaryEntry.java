@@ -0,0 +1,102 @@
+package com.dietmath.diary;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "diary_entries")
+public class DiaryEntry {
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "diary_entries_id_seq")
+	@SequenceGenerator(name = "diary_entries_id_seq", sequenceName = "diary_entries_id_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Column(name = "food_id", nullable = false)
+	private Long foodId;
+
+	@Column(name = "entry_date", nullable = false)
+	private LocalDate entryDate;
+
+	@Column(nullable = false, precision = 10, scale = 2)
+	private BigDecimal grams;
+
+	@Generated(event = { EventType.INSERT, EventType.UPDATE })
+	@Column(nullable = false, precision = 10, scale = 2, insertable = false, updatable = false)
+	private BigDecimal calories;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	protected DiaryEntry() {
+	}
+
+	public DiaryEntry(Long userId, Long foodId, LocalDate entryDate, BigDecimal grams) {
+		this.userId = userId;
+		this.foodId = foodId;
+		this.entryDate = entryDate;
+		this.grams = grams;
+	}
+
+	@PrePersist
+	void onCreate() {
+		if (createdAt == null) {
+			createdAt = Instant.now();
+		}
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public Long getFoodId() {
+		return foodId;
+	}
+
+	public void setFoodId(Long foodId) {
+		this.foodId = foodId;
+	}
+
+	public LocalDate getEntryDate() {
+		return entryDate;
+	}
+
+	public void setEntryDate(LocalDate entryDate) {
+		this.entryDate = entryDate;
+	}
+
+	public BigDecimal getGrams() {
+		return grams;
+	}
+
+	public void setGrams(BigDecimal grams) {
+		this.grams = grams;
+	}
+
+	public BigDecimal getCalories() {
+		return calories;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+}
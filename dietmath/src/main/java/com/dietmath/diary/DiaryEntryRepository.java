@@ -0,0 +1,22 @@
+package com.dietmath.diary;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface DiaryEntryRepository extends JpaRepository<DiaryEntry, Long> {
+	List<DiaryEntry> findByUserIdAndEntryDateOrderByIdAsc(Long userId, LocalDate entryDate);
+	Optional<DiaryEntry> findByIdAndUserId(Long id, Long userId);
+
+	@Query(value = """
+		SELECT EXISTS (
+		    SELECT 1 FROM foods
+		    WHERE id = :foodId AND (source = 'BUILTIN' OR user_id = :userId)
+		)
+		""", nativeQuery = true)
+	boolean isFoodAvailable(@Param("foodId") Long foodId, @Param("userId") Long userId);
+}
@@ -0,0 +1,99 @@
+package com.dietmath.diary;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dietmath.diary.dto.DailyTotalView;
+import com.dietmath.diary.dto.DiaryDay;
+import com.dietmath.diary.dto.DiaryEntryRequest;
+import com.dietmath.diary.dto.DiaryEntryView;
+import com.dietmath.food.BuiltinFoodCatalog;
+import com.dietmath.food.dto.FoodSuggestion;
+
+@Service
+public class DiaryService {
+	private final DiaryEntryRepository diaryEntryRepository;
+	private final DailyTotalRepository dailyTotalRepository;
+	private final FoodUsageService foodUsageService;
+	private final BuiltinFoodCatalog foodCatalog;
+
+	public DiaryService(DiaryEntryRepository diaryEntryRepository, DailyTotalRepository dailyTotalRepository,
+		FoodUsageService foodUsageService, BuiltinFoodCatalog foodCatalog) {
+		this.diaryEntryRepository = diaryEntryRepository;
+		this.dailyTotalRepository = dailyTotalRepository;
+		this.foodUsageService = foodUsageService;
+		this.foodCatalog = foodCatalog;
+	}
+
+	@Transactional
+	public DiaryEntryView addEntry(Long userId, DiaryEntryRequest request) {
+		requireFood(request.foodId(), userId);
+		DiaryEntry entry = new DiaryEntry(userId, request.foodId(), request.entryDate(), request.grams());
+		DiaryEntryView view = DiaryEntryView.from(diaryEntryRepository.saveAndFlush(entry));
+		foodUsageService.recordUse(userId, request.foodId(), request.entryDate());
+		return view;
+	}
+
+	@Transactional
+	public Optional<DiaryEntryView> updateEntry(Long userId, Long entryId, DiaryEntryRequest request) {
+		Optional<DiaryEntry> existing = diaryEntryRepository.findByIdAndUserId(entryId, userId);
+		if (existing.isEmpty()) {
+			return Optional.empty();
+		}
+		requireFood(request.foodId(), userId);
+		DiaryEntry entry = existing.get();
+		if (!entry.getFoodId().equals(request.foodId())) {
+			foodUsageService.evict(userId);
+		}
+		entry.setFoodId(request.foodId());
+		entry.setEntryDate(request.entryDate());
+		entry.setGrams(request.grams());
+		return Optional.of(DiaryEntryView.from(diaryEntryRepository.saveAndFlush(entry)));
+	}
+
+	@Transactional
+	public boolean deleteEntry(Long userId, Long entryId) {
+		Optional<DiaryEntry> existing = diaryEntryRepository.findByIdAndUserId(entryId, userId);
+		if (existing.isEmpty()) {
+			return false;
+		}
+		diaryEntryRepository.delete(existing.get());
+		foodUsageService.evict(userId);
+		return true;
+	}
+
+	@Transactional(readOnly = true)
+	public DiaryDay day(Long userId, LocalDate date) {
+		DailyTotalView total = dailyTotalRepository.findByUserIdAndEntryDate(userId, date)
+			.map(DailyTotalView::from)
+			.orElseGet(() -> DailyTotalView.empty(date));
+		List<DiaryEntryView> entries = diaryEntryRepository.findByUserIdAndEntryDateOrderByIdAsc(userId, date).stream()
+			.map(DiaryEntryView::from)
+			.toList();
+		LinkedHashSet<Long> foodIds = new LinkedHashSet<>();
+		entries.forEach(entry -> foodIds.add(entry.foodId()));
+		Map<Long, FoodSuggestion> foods = foodCatalog.resolve(userId, foodIds);
+		return new DiaryDay(date, total, entries,
+			foodIds.stream().map(foods::get).filter(Objects::nonNull).toList());
+	}
+
+	@Transactional(readOnly = true)
+	public List<DailyTotalView> totals(Long userId, LocalDate from, LocalDate to) {
+		return dailyTotalRepository.findByUserIdAndEntryDateBetweenOrderByEntryDateAsc(userId, from, to).stream()
+			.map(DailyTotalView::from)
+			.toList();
+	}
+
+	private void requireFood(Long foodId, Long userId) {
+		if (!foodCatalog.contains(foodId) && !diaryEntryRepository.isFoodAvailable(foodId, userId)) {
+			throw new IllegalArgumentException("Food not found.");
+		}
+	}
+}
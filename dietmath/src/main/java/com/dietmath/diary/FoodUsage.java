@@ -0,0 +1,132 @@
+package com.dietmath.diary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public final class FoodUsage {
+	public static final int MAX_TRACKED_FOODS = 64;
+
+	private static final FoodUsage EMPTY = new FoodUsage(new long[0], new int[0], new long[0]);
+
+	private final long[] foodIds;
+	private final int[] uses;
+	private final long[] lastUsedDays;
+
+	private FoodUsage(long[] foodIds, int[] uses, long[] lastUsedDays) {
+		this.foodIds = foodIds;
+		this.uses = uses;
+		this.lastUsedDays = lastUsedDays;
+	}
+
+	public static FoodUsage empty() {
+		return EMPTY;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int size() {
+		return foodIds.length;
+	}
+
+	public int uses(long foodId) {
+		int index = indexOf(foodId);
+		return index >= 0 ? uses[index] : 0;
+	}
+
+	public List<Long> recent(int limit) {
+		return top(limit, Comparator.comparingLong((Integer i) -> lastUsedDays[i]).reversed()
+			.thenComparing(Comparator.comparingInt((Integer i) -> uses[i]).reversed()));
+	}
+
+	public List<Long> frequent(int limit) {
+		return top(limit, Comparator.comparingInt((Integer i) -> uses[i]).reversed()
+			.thenComparing(Comparator.comparingLong((Integer i) -> lastUsedDays[i]).reversed()));
+	}
+
+	public FoodUsage withUse(long foodId, LocalDate date) {
+		long day = date.toEpochDay();
+		int index = indexOf(foodId);
+		if (index >= 0) {
+			int[] newUses = uses.clone();
+			long[] newDays = lastUsedDays.clone();
+			newUses[index] = uses[index] == Integer.MAX_VALUE ? uses[index] : uses[index] + 1;
+			newDays[index] = Math.max(lastUsedDays[index], day);
+			return new FoodUsage(foodIds, newUses, newDays);
+		}
+		if (foodIds.length < MAX_TRACKED_FOODS) {
+			int size = foodIds.length;
+			long[] newIds = Arrays.copyOf(foodIds, size + 1);
+			int[] newUses = Arrays.copyOf(uses, size + 1);
+			long[] newDays = Arrays.copyOf(lastUsedDays, size + 1);
+			newIds[size] = foodId;
+			newUses[size] = 1;
+			newDays[size] = day;
+			return new FoodUsage(newIds, newUses, newDays);
+		}
+		int weakest = 0;
+		for (int i = 1; i < foodIds.length; i++) {
+			if (uses[i] < uses[weakest] || (uses[i] == uses[weakest] && lastUsedDays[i] < lastUsedDays[weakest])) {
+				weakest = i;
+			}
+		}
+		long[] newIds = foodIds.clone();
+		int[] newUses = uses.clone();
+		long[] newDays = lastUsedDays.clone();
+		newIds[weakest] = foodId;
+		newUses[weakest] = 1;
+		newDays[weakest] = day;
+		return new FoodUsage(newIds, newUses, newDays);
+	}
+
+	private List<Long> top(int limit, Comparator<Integer> order) {
+		List<Integer> indexes = new ArrayList<>(foodIds.length);
+		for (int i = 0; i < foodIds.length; i++) {
+			indexes.add(i);
+		}
+		indexes.sort(order);
+		List<Long> result = new ArrayList<>(Math.min(limit, indexes.size()));
+		for (int i = 0; i < indexes.size() && result.size() < limit; i++) {
+			result.add(foodIds[indexes.get(i)]);
+		}
+		return result;
+	}
+
+	private int indexOf(long foodId) {
+		for (int i = 0; i < foodIds.length; i++) {
+			if (foodIds[i] == foodId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public static final class Builder {
+		private final long[] foodIds = new long[MAX_TRACKED_FOODS];
+		private final int[] uses = new int[MAX_TRACKED_FOODS];
+		private final long[] lastUsedDays = new long[MAX_TRACKED_FOODS];
+		private int size;
+
+		private Builder() {
+		}
+
+		public Builder add(long foodId, int uses, LocalDate lastUsed) {
+			if (size < MAX_TRACKED_FOODS) {
+				this.foodIds[size] = foodId;
+				this.uses[size] = uses;
+				this.lastUsedDays[size] = lastUsed.toEpochDay();
+				size++;
+			}
+			return this;
+		}
+
+		public FoodUsage build() {
+			return new FoodUsage(Arrays.copyOf(foodIds, size), Arrays.copyOf(uses, size),
+				Arrays.copyOf(lastUsedDays, size));
+		}
+	}
+}
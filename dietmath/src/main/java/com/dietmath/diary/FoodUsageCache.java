@@ -0,0 +1,86 @@
+package com.dietmath.diary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Component
+public class FoodUsageCache implements MeterBinder {
+	private final int maxEntries;
+	private final Map<Long, FoodUsage> entries;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public FoodUsageCache(@Value("${dietmath.food-usage.max-users:1000}") int maxEntries) {
+		this.maxEntries = Math.max(1, maxEntries);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, FoodUsage> eldest) {
+				if (size() > FoodUsageCache.this.maxEntries) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public FoodUsage get(Long userId) {
+		FoodUsage usage;
+		synchronized (entries) {
+			usage = entries.get(userId);
+		}
+		if (usage == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+		return usage;
+	}
+
+	public FoodUsage putIfAbsent(Long userId, FoodUsage usage) {
+		synchronized (entries) {
+			FoodUsage existing = entries.putIfAbsent(userId, usage);
+			return existing != null ? existing : usage;
+		}
+	}
+
+	public void updateIfPresent(Long userId, UnaryOperator<FoodUsage> update) {
+		synchronized (entries) {
+			entries.computeIfPresent(userId, (key, usage) -> update.apply(usage));
+		}
+	}
+
+	public void evict(Long userId) {
+		synchronized (entries) {
+			entries.remove(userId);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("dietmath.food.usage.cache.size", entries, map -> {
+			synchronized (map) {
+				return map.size();
+			}
+		}).description("Users with cached recent and frequent foods").register(registry);
+		FunctionCounter.builder("dietmath.food.usage.cache.requests", hits, LongAdder::sum)
+			.tag("result", "hit")
+			.register(registry);
+		FunctionCounter.builder("dietmath.food.usage.cache.requests", misses, LongAdder::sum)
+			.tag("result", "miss")
+			.register(registry);
+		FunctionCounter.builder("dietmath.food.usage.cache.evictions", evictions, LongAdder::sum)
+			.register(registry);
+	}
+}
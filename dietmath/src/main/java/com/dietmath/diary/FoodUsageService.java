@@ -0,0 +1,94 @@
+package com.dietmath.diary;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.dietmath.diary.dto.QuickAddView;
+import com.dietmath.food.BuiltinFoodCatalog;
+import com.dietmath.food.dto.FoodSuggestion;
+
+@Service
+public class FoodUsageService {
+	private static final String SEED_SQL = """
+		SELECT food_id, COUNT(*) AS uses, MAX(entry_date) AS last_used
+		FROM diary_entries
+		WHERE user_id = ? AND entry_date >= ?
+		GROUP BY food_id
+		ORDER BY uses DESC, last_used DESC
+		LIMIT ?
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final FoodUsageCache cache;
+	private final BuiltinFoodCatalog foodCatalog;
+	private final int windowDays;
+
+	public FoodUsageService(JdbcTemplate jdbcTemplate, FoodUsageCache cache, BuiltinFoodCatalog foodCatalog,
+		@Value("${dietmath.food-usage.window-days:90}") int windowDays) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.cache = cache;
+		this.foodCatalog = foodCatalog;
+		this.windowDays = Math.max(1, windowDays);
+	}
+
+	public FoodUsage usage(Long userId) {
+		FoodUsage cached = cache.get(userId);
+		if (cached != null) {
+			return cached;
+		}
+		FoodUsage.Builder builder = FoodUsage.builder();
+		jdbcTemplate.query(SEED_SQL, rs -> {
+			builder.add(rs.getLong("food_id"), rs.getInt("uses"), rs.getDate("last_used").toLocalDate());
+		}, userId, Date.valueOf(LocalDate.now().minusDays(windowDays)), FoodUsage.MAX_TRACKED_FOODS);
+		return cache.putIfAbsent(userId, builder.build());
+	}
+
+	public QuickAddView quickAdd(Long userId, int limit) {
+		FoodUsage usage = usage(userId);
+		List<Long> recent = usage.recent(limit);
+		List<Long> frequent = usage.frequent(limit);
+		Set<Long> ids = new LinkedHashSet<>(recent);
+		ids.addAll(frequent);
+		if (ids.isEmpty()) {
+			return new QuickAddView(List.of(), List.of());
+		}
+		Map<Long, FoodSuggestion> foods = foodCatalog.resolve(userId, ids);
+		return new QuickAddView(resolve(recent, foods), resolve(frequent, foods));
+	}
+
+	public void recordUse(Long userId, Long foodId, LocalDate entryDate) {
+		afterCommit(() -> cache.updateIfPresent(userId, usage -> usage.withUse(foodId, entryDate)));
+	}
+
+	public void evict(Long userId) {
+		afterCommit(() -> cache.evict(userId));
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	private static List<FoodSuggestion> resolve(List<Long> ids, Map<Long, FoodSuggestion> foods) {
+		return ids.stream().map(foods::get).filter(Objects::nonNull).toList();
+	}
+}
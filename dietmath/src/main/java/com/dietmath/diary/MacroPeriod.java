@@ -0,0 +1,16 @@
+package com.dietmath.diary;
+
+public enum MacroPeriod {
+	DAY(1),
+	WEEK(7);
+
+	private final int days;
+
+	MacroPeriod(int days) {
+		this.days = days;
+	}
+
+	public int days() {
+		return days;
+	}
+}
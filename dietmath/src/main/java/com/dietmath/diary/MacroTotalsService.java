@@ -0,0 +1,95 @@
+package com.dietmath.diary;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dietmath.diary.dto.MacroTotalsView;
+import com.dietmath.food.BuiltinFoodCatalog;
+import com.dietmath.food.Nutrient;
+import com.dietmath.food.NutrientTable;
+
+@Service
+public class MacroTotalsService {
+	private static final String USER_NUTRIENTS_SQL = """
+		SELECT id, nutrients FROM foods
+		WHERE source = 'USER' AND user_id = ? AND nutrients IS NOT NULL
+		ORDER BY id
+		""";
+	private static final String ENTRIES_SQL = """
+		SELECT entry_date - CAST(? AS DATE) AS day_offset, food_id, grams
+		FROM diary_entries
+		WHERE user_id = ? AND entry_date BETWEEN ? AND ?
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final BuiltinFoodCatalog foodCatalog;
+
+	public MacroTotalsService(JdbcTemplate jdbcTemplate, BuiltinFoodCatalog foodCatalog) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.foodCatalog = foodCatalog;
+	}
+
+	@Transactional(readOnly = true)
+	public MacroTotalsView totals(Long userId, LocalDate from, LocalDate to, MacroPeriod period) {
+		LocalDate origin = period == MacroPeriod.WEEK ? from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+			: from;
+		int periodDays = period.days();
+		int periods = (int) (ChronoUnit.DAYS.between(origin, to) / periodDays) + 1;
+		double[] sums = new double[periods * Nutrient.COUNT];
+		int[] entryCounts = new int[periods];
+		int[] withoutNutrients = new int[periods];
+
+		NutrientTable builtin = foodCatalog.nutrients();
+		NutrientTable.Builder userBuilder = NutrientTable.builder();
+		jdbcTemplate.query(USER_NUTRIENTS_SQL, (RowCallbackHandler) rs -> userBuilder.add(rs.getLong("id"),
+			NutrientTable.readVector(rs, "nutrients")), userId);
+		NutrientTable userFoods = userBuilder.build();
+
+		jdbcTemplate.query(ENTRIES_SQL, (RowCallbackHandler) rs -> {
+			int bucket = rs.getInt(1) / periodDays;
+			long foodId = rs.getLong(2);
+			double grams = rs.getDouble(3);
+			entryCounts[bucket]++;
+			int row = builtin.indexOf(foodId);
+			if (row >= 0) {
+				builtin.accumulate(row, grams, sums, bucket * Nutrient.COUNT);
+			} else if ((row = userFoods.indexOf(foodId)) >= 0) {
+				userFoods.accumulate(row, grams, sums, bucket * Nutrient.COUNT);
+			} else {
+				withoutNutrients[bucket]++;
+			}
+		}, origin, userId, from, to);
+
+		List<MacroTotalsView.Period> views = new ArrayList<>(periods);
+		double[] total = new double[Nutrient.COUNT];
+		for (int bucket = 0; bucket < periods; bucket++) {
+			double[] values = new double[Nutrient.COUNT];
+			for (int n = 0; n < Nutrient.COUNT; n++) {
+				double sum = sums[bucket * Nutrient.COUNT + n];
+				total[n] += sum;
+				values[n] = round(sum);
+			}
+			LocalDate start = origin.plusDays((long) bucket * periodDays);
+			views.add(new MacroTotalsView.Period(start.isBefore(from) ? from : start, values, entryCounts[bucket],
+				withoutNutrients[bucket]));
+		}
+		for (int n = 0; n < Nutrient.COUNT; n++) {
+			total[n] = round(total[n]);
+		}
+		List<String> nutrients = Nutrient.all().stream().map(Nutrient::column).toList();
+		return new MacroTotalsView(from, to, period, nutrients, views, total);
+	}
+
+	private static double round(double grams) {
+		return Math.round(grams * 10.0) / 10.0;
+	}
+}
@@ -0,0 +1,17 @@
+package com.dietmath.diary.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.dietmath.diary.DailyTotal;
+
+public record DailyTotalView(LocalDate entryDate, BigDecimal calories, BigDecimal grams, int entryCount) {
+
+	public static DailyTotalView from(DailyTotal total) {
+		return new DailyTotalView(total.getEntryDate(), total.getCalories(), total.getGrams(), total.getEntryCount());
+	}
+
+	public static DailyTotalView empty(LocalDate entryDate) {
+		return new DailyTotalView(entryDate, BigDecimal.ZERO, BigDecimal.ZERO, 0);
+	}
+}
@@ -0,0 +1,10 @@
+package com.dietmath.diary.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.dietmath.food.dto.FoodSuggestion;
+
+public record DiaryDay(LocalDate entryDate, DailyTotalView total, List<DiaryEntryView> entries,
+	List<FoodSuggestion> foods) {
+}
@@ -0,0 +1,24 @@
+package com.dietmath.diary.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record DiaryEntryRequest(
+	@NotNull
+	Long foodId,
+	@NotNull
+	LocalDate entryDate,
+	@NotNull
+	@Positive
+	@DecimalMax(DiaryEntryRequest.MAX_GRAMS)
+	@Digits(integer = 5, fraction = 2)
+	BigDecimal grams
+) {
+	// 10 kg per entry keeps grams * kcal/100g inside diary_entries.calories NUMERIC(10, 2).
+	public static final String MAX_GRAMS = "10000";
+}
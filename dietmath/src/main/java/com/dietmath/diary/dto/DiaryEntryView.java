@@ -0,0 +1,14 @@
+package com.dietmath.diary.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.dietmath.diary.DiaryEntry;
+
+public record DiaryEntryView(Long id, Long foodId, LocalDate entryDate, BigDecimal grams, BigDecimal calories) {
+
+	public static DiaryEntryView from(DiaryEntry entry) {
+		return new DiaryEntryView(entry.getId(), entry.getFoodId(), entry.getEntryDate(), entry.getGrams(),
+			entry.getCalories());
+	}
+}
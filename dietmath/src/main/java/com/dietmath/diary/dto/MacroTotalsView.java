@@ -0,0 +1,13 @@
+package com.dietmath.diary.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.dietmath.diary.MacroPeriod;
+
+public record MacroTotalsView(LocalDate from, LocalDate to, MacroPeriod period, List<String> nutrients,
+	List<Period> periods, double[] total) {
+
+	public record Period(LocalDate start, double[] values, int entryCount, int entriesWithoutNutrients) {
+	}
+}
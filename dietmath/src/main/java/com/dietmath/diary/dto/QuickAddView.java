@@ -0,0 +1,8 @@
+package com.dietmath.diary.dto;
+
+import java.util.List;
+
+import com.dietmath.food.dto.FoodSuggestion;
+
+public record QuickAddView(List<FoodSuggestion> recent, List<FoodSuggestion> frequent) {
+}
@@ -0,0 +1,62 @@
+package com.dietmath.export;
+
+import java.util.List;
+
+public enum ExportDataset {
+	WEIGHTS("weights", """
+		SELECT id, recorded_at, weight, goal_weight, goal_date, calorie_strategy
+		FROM user_weights
+		WHERE user_id = ?
+		ORDER BY recorded_at, id
+		""", List.of(
+		new Column("id", ColumnType.NUMBER),
+		new Column("recorded_at", ColumnType.TIMESTAMP),
+		new Column("weight", ColumnType.NUMBER),
+		new Column("goal_weight", ColumnType.NUMBER),
+		new Column("goal_date", ColumnType.TEXT),
+		new Column("calorie_strategy", ColumnType.TEXT))),
+	DIARY("diary", """
+		SELECT d.id, d.entry_date, d.food_id, f.name AS food_name, d.grams, d.calories
+		FROM diary_entries d
+		JOIN foods f ON f.id = d.food_id
+		WHERE d.user_id = ?
+		ORDER BY d.entry_date, d.id
+		""", List.of(
+		new Column("id", ColumnType.NUMBER),
+		new Column("entry_date", ColumnType.TEXT),
+		new Column("food_id", ColumnType.NUMBER),
+		new Column("food_name", ColumnType.TEXT),
+		new Column("grams", ColumnType.NUMBER),
+		new Column("calories", ColumnType.NUMBER)));
+
+	private final String fileName;
+	private final String sql;
+	private final List<Column> columns;
+
+	ExportDataset(String fileName, String sql, List<Column> columns) {
+		this.fileName = fileName;
+		this.sql = sql;
+		this.columns = columns;
+	}
+
+	public String fileName() {
+		return fileName;
+	}
+
+	String sql() {
+		return sql;
+	}
+
+	List<Column> columns() {
+		return columns;
+	}
+
+	record Column(String name, ColumnType type) {
+	}
+
+	enum ColumnType {
+		NUMBER,
+		TEXT,
+		TIMESTAMP
+	}
+}
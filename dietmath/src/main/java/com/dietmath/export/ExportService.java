@@ -0,0 +1,143 @@
+package com.dietmath.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dietmath.export.ExportDataset.Column;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+@Service
+public class ExportService {
+	private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+
+	private final JdbcTemplate cursorTemplate;
+	private final TransactionTemplate readOnlyTransaction;
+	private final JsonMapper jsonMapper;
+
+	public ExportService(DataSource dataSource, PlatformTransactionManager transactionManager, JsonMapper jsonMapper,
+		@Value("${dietmath.export.fetch-size:1000}") int fetchSize) {
+		this.cursorTemplate = new JdbcTemplate(dataSource);
+		this.cursorTemplate.setFetchSize(fetchSize);
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.jsonMapper = jsonMapper;
+	}
+
+	public void export(Long userId, ExportDataset dataset, ExportFormat format, OutputStream out) {
+		readOnlyTransaction.executeWithoutResult(status -> {
+			if (format == ExportFormat.JSON) {
+				writeJson(userId, dataset, out);
+			} else {
+				writeCsv(userId, dataset, out);
+			}
+		});
+	}
+
+	private void writeCsv(Long userId, ExportDataset dataset, OutputStream out) {
+		List<Column> columns = dataset.columns();
+		try {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+			for (int i = 0; i < columns.size(); i++) {
+				if (i > 0) {
+					writer.write(',');
+				}
+				writer.write(columns.get(i).name());
+			}
+			writer.write('\n');
+			cursorTemplate.query(dataset.sql(), (RowCallbackHandler) rs -> {
+				try {
+					for (int i = 0; i < columns.size(); i++) {
+						if (i > 0) {
+							writer.write(',');
+						}
+						String value = textValue(rs, i + 1, columns.get(i));
+						if (value != null) {
+							writeCsvValue(writer, value);
+						}
+					}
+					writer.write('\n');
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}, userId);
+			writer.flush();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private void writeJson(Long userId, ExportDataset dataset, OutputStream out) {
+		List<Column> columns = dataset.columns();
+		try (JsonGenerator generator = jsonMapper.createGenerator(out)) {
+			generator.writeStartArray();
+			cursorTemplate.query(dataset.sql(), (RowCallbackHandler) rs -> {
+				generator.writeStartObject();
+				for (int i = 0; i < columns.size(); i++) {
+					Column column = columns.get(i);
+					if (column.type() == ExportDataset.ColumnType.NUMBER) {
+						BigDecimal value = rs.getBigDecimal(i + 1);
+						if (value == null) {
+							generator.writeNullProperty(column.name());
+						} else {
+							generator.writeNumberProperty(column.name(), value);
+						}
+					} else {
+						String value = textValue(rs, i + 1, column);
+						if (value == null) {
+							generator.writeNullProperty(column.name());
+						} else {
+							generator.writeStringProperty(column.name(), value);
+						}
+					}
+				}
+				generator.writeEndObject();
+			}, userId);
+			generator.writeEndArray();
+		}
+	}
+
+	private static String textValue(ResultSet rs, int index, Column column) throws SQLException {
+		if (column.type() == ExportDataset.ColumnType.TIMESTAMP) {
+			OffsetDateTime value = rs.getObject(index, OffsetDateTime.class);
+			return value == null ? null : value.toInstant().toString();
+		}
+		if (column.type() == ExportDataset.ColumnType.NUMBER) {
+			BigDecimal value = rs.getBigDecimal(index);
+			return value == null ? null : value.toPlainString();
+		}
+		return rs.getString(index);
+	}
+
+	private static void writeCsvValue(Writer writer, String value) throws IOException {
+		boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+			|| value.indexOf('\r') >= 0;
+		if (!quote) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
@@ -0,0 +1,184 @@
+package com.dietmath.food;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.dietmath.food.dto.FoodSuggestion;
+
+@Service
+public class BuiltinFoodCatalog {
+	private static final Logger log = LoggerFactory.getLogger(BuiltinFoodCatalog.class);
+
+	private static final String BUILTIN_SQL = """
+		SELECT id, name, calories_per_100g, nutrients FROM foods
+		WHERE source = 'BUILTIN'
+		ORDER BY id
+		""";
+	private static final String FOODS_SQL = """
+		SELECT id, name, calories_per_100g, source
+		FROM foods
+		WHERE id = ANY (?) AND (source = 'BUILTIN' OR user_id = ?)
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private volatile Snapshot snapshot;
+
+	public BuiltinFoodCatalog(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public int size() {
+		Snapshot current = snapshot;
+		return current != null ? current.ids.length : 0;
+	}
+
+	public long version() {
+		Snapshot current = snapshot;
+		return current != null ? current.version : 0;
+	}
+
+	public FoodSuggestion find(long id) {
+		Snapshot current = snapshot;
+		return current != null ? current.find(id) : null;
+	}
+
+	public boolean contains(long id) {
+		Snapshot current = snapshot;
+		return current != null && current.indexOf(id) >= 0;
+	}
+
+	public NutrientTable nutrients() {
+		Snapshot current = snapshot;
+		return current != null ? current.nutrients : NutrientTable.empty();
+	}
+
+	public Map<Long, FoodSuggestion> resolve(Long userId, Collection<Long> ids) {
+		Map<Long, FoodSuggestion> foods = new HashMap<>();
+		Set<Long> missing = new HashSet<>();
+		Snapshot current = snapshot;
+		for (Long id : ids) {
+			FoodSuggestion food = current != null ? current.find(id) : null;
+			if (food != null) {
+				foods.put(id, food);
+			} else {
+				missing.add(id);
+			}
+		}
+		if (missing.isEmpty()) {
+			return foods;
+		}
+		jdbcTemplate.query(connection -> {
+			var statement = connection.prepareStatement(FOODS_SQL);
+			statement.setArray(1, connection.createArrayOf("bigint", missing.toArray(Long[]::new)));
+			statement.setLong(2, userId);
+			return statement;
+		}, (RowCallbackHandler) rs -> {
+			FoodSuggestion food = new FoodSuggestion(rs.getLong("id"), rs.getString("name"),
+				rs.getInt("calories_per_100g"), rs.getString("source"));
+			foods.put(food.id(), food);
+		});
+		return foods;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadOnStartup() {
+		if (snapshot == null) {
+			reload();
+		}
+	}
+
+	@EventListener
+	public void onFoodsImported(FoodsImportedEvent event) {
+		reload();
+	}
+
+	public void reload() {
+		long started = System.nanoTime();
+		try {
+			Snapshot.Builder builder = new Snapshot.Builder();
+			jdbcTemplate.query(BUILTIN_SQL, (RowCallbackHandler) rs -> builder.add(rs.getLong("id"),
+				rs.getString("name"), rs.getInt("calories_per_100g"), NutrientTable.readVector(rs, "nutrients")));
+			Snapshot loaded = builder.build();
+			snapshot = loaded;
+			log.info("Loaded {} builtin foods into the catalog in {} ms.", loaded.ids.length,
+				(System.nanoTime() - started) / 1_000_000);
+		} catch (RuntimeException ex) {
+			log.warn("Builtin food catalog reload failed, keeping the previous catalog: {}", ex.getMessage(), ex);
+		}
+	}
+
+	private static final class Snapshot {
+		private final long version;
+		private final long[] ids;
+		private final String[] names;
+		private final int[] calories;
+		private final NutrientTable nutrients;
+
+		private Snapshot(long version, long[] ids, String[] names, int[] calories, NutrientTable nutrients) {
+			this.version = version;
+			this.ids = ids;
+			this.names = names;
+			this.calories = calories;
+			this.nutrients = nutrients;
+		}
+
+		private int indexOf(long id) {
+			return Arrays.binarySearch(ids, id);
+		}
+
+		private FoodSuggestion find(long id) {
+			int index = indexOf(id);
+			return index >= 0 ? new FoodSuggestion(id, names[index], calories[index], "BUILTIN") : null;
+		}
+
+		private static final class Builder {
+			private long[] ids = new long[1024];
+			private String[] names = new String[1024];
+			private int[] calories = new int[1024];
+			private final NutrientTable.Builder nutrients = NutrientTable.builder();
+			private long checksum = 0xCBF29CE484222325L;
+			private int size;
+
+			private void add(long id, String name, int caloriesPer100g, Float[] nutrientsPer100g) {
+				if (size == ids.length) {
+					ids = Arrays.copyOf(ids, size * 2);
+					names = Arrays.copyOf(names, size * 2);
+					calories = Arrays.copyOf(calories, size * 2);
+				}
+				ids[size] = id;
+				names[size] = name;
+				calories[size] = caloriesPer100g;
+				// Foods without nutrients stay out of the table so macro totals report them as unknown, not 0 g.
+				if (nutrientsPer100g != null) {
+					nutrients.add(id, nutrientsPer100g);
+				}
+				size++;
+				checksum = mix(checksum, id);
+				checksum = mix(checksum, name != null ? name.hashCode() : 0);
+				checksum = mix(checksum, caloriesPer100g);
+				checksum = mix(checksum, nutrientsPer100g != null ? Arrays.hashCode(nutrientsPer100g) : -1);
+			}
+
+			private Snapshot build() {
+				return new Snapshot(checksum, Arrays.copyOf(ids, size), Arrays.copyOf(names, size),
+					Arrays.copyOf(calories, size), nutrients.build());
+			}
+
+			private static long mix(long hash, long value) {
+				return (hash ^ value) * 0x100000001B3L;
+			}
+		}
+	}
+}
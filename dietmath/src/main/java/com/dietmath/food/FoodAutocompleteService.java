@@ -0,0 +1,122 @@
+package com.dietmath.food;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.dietmath.food.dto.FoodSuggestion;
+
+@Service
+public class FoodAutocompleteService {
+	private static final Logger log = LoggerFactory.getLogger(FoodAutocompleteService.class);
+
+	public static final int MAX_SUGGESTIONS = 50;
+
+	private static final String BUILTIN_SQL = """
+		SELECT id, name, calories_per_100g FROM foods
+		WHERE source = 'BUILTIN'
+		ORDER BY id
+		""";
+	private static final String USER_SQL = """
+		SELECT id, name, calories_per_100g FROM foods
+		WHERE source = 'USER' AND user_id = ?
+		ORDER BY id
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final int maxUserEntries;
+	private final Map<Long, FoodPrefixIndex> userIndexes;
+	private volatile FoodPrefixIndex builtinIndex;
+
+	public FoodAutocompleteService(JdbcTemplate jdbcTemplate,
+		@Value("${dietmath.foods.autocomplete.user-cache-entries:1000}") int maxUserEntries) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.maxUserEntries = Math.max(1, maxUserEntries);
+		this.userIndexes = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, FoodPrefixIndex> eldest) {
+				return size() > FoodAutocompleteService.this.maxUserEntries;
+			}
+		};
+	}
+
+	public List<FoodSuggestion> suggest(Long userId, String query, int limit) {
+		FoodPrefixIndex builtin = builtinIndex;
+		List<FoodSuggestion> own = userIndex(userId).search(query, limit);
+		List<FoodSuggestion> shared = builtin != null ? builtin.search(query, limit) : List.of();
+		if (own.isEmpty()) {
+			return shared;
+		}
+		List<FoodSuggestion> merged = new ArrayList<>(Math.min(limit, own.size() + shared.size()));
+		merged.addAll(own);
+		for (int i = 0; i < shared.size() && merged.size() < limit; i++) {
+			merged.add(shared.get(i));
+		}
+		return merged;
+	}
+
+	public int builtinSize() {
+		FoodPrefixIndex builtin = builtinIndex;
+		return builtin != null ? builtin.size() : 0;
+	}
+
+	public void evictUser(Long userId) {
+		synchronized (userIndexes) {
+			userIndexes.remove(userId);
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadOnStartup() {
+		if (builtinIndex == null) {
+			reload();
+		}
+	}
+
+	@EventListener
+	public void onFoodsImported(FoodsImportedEvent event) {
+		reload();
+	}
+
+	public void reload() {
+		long started = System.nanoTime();
+		try {
+			FoodPrefixIndex.Builder builder = FoodPrefixIndex.builder("BUILTIN");
+			jdbcTemplate.query(BUILTIN_SQL, (RowCallbackHandler) rs -> builder.add(rs.getLong("id"),
+				rs.getString("name"), rs.getInt("calories_per_100g")));
+			FoodPrefixIndex index = builder.build();
+			builtinIndex = index;
+			log.info("Built food autocomplete index with {} foods ({} KB) in {} ms.", index.size(),
+				index.estimatedBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+		} catch (RuntimeException ex) {
+			log.warn("Food autocomplete index rebuild failed, keeping the previous index: {}", ex.getMessage(), ex);
+		}
+	}
+
+	private FoodPrefixIndex userIndex(Long userId) {
+		synchronized (userIndexes) {
+			FoodPrefixIndex cached = userIndexes.get(userId);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		FoodPrefixIndex.Builder builder = FoodPrefixIndex.builder("USER");
+		jdbcTemplate.query(USER_SQL, (RowCallbackHandler) rs -> builder.add(rs.getLong("id"), rs.getString("name"),
+			rs.getInt("calories_per_100g")), userId);
+		FoodPrefixIndex loaded = builder.build();
+		synchronized (userIndexes) {
+			FoodPrefixIndex existing = userIndexes.putIfAbsent(userId, loaded);
+			return existing != null ? existing : loaded;
+		}
+	}
+}
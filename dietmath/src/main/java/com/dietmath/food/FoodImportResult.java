@@ -0,0 +1,16 @@
+package com.dietmath.food;
+
+public record FoodImportResult(String source, boolean skipped, int rows, int rejected, int upserted,
+	long elapsedMillis) {
+
+	public static FoodImportResult unchanged(String source, long elapsedMillis) {
+		return new FoodImportResult(source, true, 0, 0, 0, elapsedMillis);
+	}
+
+	public double rowsPerSecond() {
+		if (elapsedMillis <= 0) {
+			return rows;
+		}
+		return rows * 1000.0 / elapsedMillis;
+	}
+}
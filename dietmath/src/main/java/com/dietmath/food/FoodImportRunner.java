@@ -0,0 +1,48 @@
+package com.dietmath.food;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FoodImportRunner implements ApplicationRunner {
+	private static final String IMPORT_OPTION = "import-foods";
+
+	private final FoodImporter foodImporter;
+	private final ResourceLoader resourceLoader;
+	private final String seedFile;
+	private final boolean importOnStartup;
+
+	public FoodImportRunner(FoodImporter foodImporter, ResourceLoader resourceLoader,
+		@Value("${dietmath.foods.seed-file:}") String seedFile,
+		@Value("${dietmath.foods.import-on-startup:true}") boolean importOnStartup) {
+		this.foodImporter = foodImporter;
+		this.resourceLoader = resourceLoader;
+		this.seedFile = seedFile;
+		this.importOnStartup = importOnStartup;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		List<String> files = args.getOptionValues(IMPORT_OPTION);
+		if (files != null) {
+			for (String file : files) {
+				foodImporter.importFoods(new FileSystemResource(file));
+			}
+			return;
+		}
+		if (!importOnStartup || seedFile.isBlank()) {
+			return;
+		}
+		Resource resource = resourceLoader.getResource(seedFile);
+		if (resource.exists()) {
+			foodImporter.importFoods(resource);
+		}
+	}
+}
@@ -0,0 +1,339 @@
+package com.dietmath.food;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+@Service
+public class FoodImporter {
+	private static final Logger log = LoggerFactory.getLogger(FoodImporter.class);
+
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+	private static final int COPY_FLUSH_CHARS = 64 * 1024;
+	private static final int MAX_LOGGED_REJECTS = 10;
+	private static final int MAX_EXTERNAL_ID_LENGTH = 64;
+	private static final int MAX_NAME_LENGTH = 255;
+
+	private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('dietmath.food_import'))";
+	private static final String CHECKSUM_SQL = "SELECT checksum FROM food_imports WHERE source_name = ?";
+	private static final String STAGING_SQL = """
+		CREATE TEMP TABLE food_import_staging (
+		    line_number INTEGER NOT NULL,
+		    external_id VARCHAR(64) NOT NULL,
+		    name VARCHAR(255) NOT NULL,
+		    calories_per_100g INTEGER NOT NULL,
+		    nutrients REAL[]
+		) ON COMMIT DROP
+		""";
+	private static final String COPY_SQL = """
+		COPY food_import_staging (line_number, external_id, name, calories_per_100g, nutrients)
+		FROM STDIN WITH (FORMAT csv)
+		""";
+	private static final String MERGE_SQL = """
+		INSERT INTO foods (name, calories_per_100g, nutrients, source, external_id)
+		SELECT DISTINCT ON (external_id) name, calories_per_100g, nutrients, 'BUILTIN', external_id
+		FROM food_import_staging
+		ORDER BY external_id, line_number DESC
+		ON CONFLICT (external_id) WHERE source = 'BUILTIN'
+		DO UPDATE SET name = EXCLUDED.name, calories_per_100g = EXCLUDED.calories_per_100g,
+		    nutrients = EXCLUDED.nutrients
+		WHERE foods.name IS DISTINCT FROM EXCLUDED.name
+		    OR foods.calories_per_100g IS DISTINCT FROM EXCLUDED.calories_per_100g
+		    OR foods.nutrients IS DISTINCT FROM EXCLUDED.nutrients
+		""";
+	private static final String RECORD_SQL = """
+		INSERT INTO food_imports (source_name, checksum, row_count, imported_at)
+		VALUES (?, ?, ?, NOW())
+		ON CONFLICT (source_name)
+		DO UPDATE SET checksum = EXCLUDED.checksum, row_count = EXCLUDED.row_count, imported_at = NOW()
+		""";
+
+	private final DataSource dataSource;
+	private final ApplicationEventPublisher eventPublisher;
+
+	public FoodImporter(DataSource dataSource, ApplicationEventPublisher eventPublisher) {
+		this.dataSource = dataSource;
+		this.eventPublisher = eventPublisher;
+	}
+
+	public FoodImportResult importFoods(Resource resource) {
+		String source = sourceName(resource);
+		long started = System.nanoTime();
+		String checksum = checksum(resource);
+		try (Connection connection = dataSource.getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				execute(connection, LOCK_SQL);
+				if (checksum.equals(currentChecksum(connection, source))) {
+					connection.rollback();
+					FoodImportResult result = FoodImportResult.unchanged(source, elapsedMillis(started));
+					log.info("Food import of {} skipped, checksum unchanged.", source);
+					return result;
+				}
+				execute(connection, STAGING_SQL);
+				CopyStats stats = copyRows(connection, resource);
+				execute(connection, "ANALYZE food_import_staging");
+				int upserted;
+				try (Statement statement = connection.createStatement()) {
+					upserted = statement.executeUpdate(MERGE_SQL);
+				}
+				recordImport(connection, source, checksum, stats.rows);
+				connection.commit();
+				FoodImportResult result = new FoodImportResult(source, false, stats.rows, stats.rejected, upserted,
+					elapsedMillis(started));
+				log.info("Imported {} food rows from {} in {} ms ({} rows/s, {} inserted or updated, {} rejected).",
+					result.rows(), source, result.elapsedMillis(),
+					String.format(Locale.ROOT, "%.0f", result.rowsPerSecond()), result.upserted(), result.rejected());
+				eventPublisher.publishEvent(new FoodsImportedEvent(result));
+				return result;
+			} catch (SQLException | IOException | RuntimeException ex) {
+				connection.rollback();
+				throw new IllegalStateException("Food import of " + source + " failed: " + ex.getMessage(), ex);
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		} catch (SQLException ex) {
+			throw new IllegalStateException("Food import of " + source + " failed: " + ex.getMessage(), ex);
+		}
+	}
+
+	private CopyStats copyRows(Connection connection, Resource resource) throws SQLException, IOException {
+		CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+		CopyStats stats = new CopyStats();
+		try (BufferedReader reader = new BufferedReader(
+			new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+			String header = reader.readLine();
+			if (header == null) {
+				throw new IOException("CSV is empty.");
+			}
+			ColumnLayout layout = ColumnLayout.of(stripBom(header));
+			StringBuilder buffer = new StringBuilder(COPY_FLUSH_CHARS + 1024);
+			int lineNumber = 1;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank()) {
+					continue;
+				}
+				String error = appendRow(buffer, lineNumber, line, layout);
+				if (error != null) {
+					stats.rejected++;
+					if (stats.rejected <= MAX_LOGGED_REJECTS) {
+						log.warn("Skipping food CSV line {}: {}", lineNumber, error);
+					}
+					continue;
+				}
+				stats.rows++;
+				if (buffer.length() >= COPY_FLUSH_CHARS) {
+					flush(copyIn, buffer);
+				}
+			}
+			flush(copyIn, buffer);
+			copyIn.endCopy();
+		} finally {
+			if (copyIn.isActive()) {
+				copyIn.cancelCopy();
+			}
+		}
+		return stats;
+	}
+
+	private static String appendRow(StringBuilder buffer, int lineNumber, String line, ColumnLayout layout) {
+		List<String> fields;
+		try {
+			fields = FoodCsv.parseLine(line);
+		} catch (IllegalArgumentException ex) {
+			return ex.getMessage();
+		}
+		if (fields.size() <= layout.maxIndex) {
+			return "expected at least " + (layout.maxIndex + 1) + " columns.";
+		}
+		String externalId = fields.get(layout.externalId);
+		String name = fields.get(layout.name);
+		if (externalId.isEmpty() || externalId.length() > MAX_EXTERNAL_ID_LENGTH) {
+			return "external_id must be 1-" + MAX_EXTERNAL_ID_LENGTH + " characters.";
+		}
+		if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+			return "name must be 1-" + MAX_NAME_LENGTH + " characters.";
+		}
+		long calories;
+		try {
+			calories = Math.round(Double.parseDouble(fields.get(layout.calories)));
+		} catch (NumberFormatException ex) {
+			return "calories_per_100g is not a number.";
+		}
+		if (calories < 0 || calories > Integer.MAX_VALUE) {
+			return "calories_per_100g is out of range.";
+		}
+		float[] nutrients = new float[Nutrient.COUNT];
+		boolean anyNutrient = false;
+		for (Nutrient nutrient : Nutrient.all()) {
+			int column = layout.nutrients[nutrient.ordinal()];
+			String value = column >= 0 && column < fields.size() ? fields.get(column) : "";
+			if (value.isEmpty()) {
+				nutrients[nutrient.ordinal()] = Float.NaN;
+				continue;
+			}
+			try {
+				nutrients[nutrient.ordinal()] = Float.parseFloat(value);
+			} catch (NumberFormatException ex) {
+				return nutrient.column() + " is not a number.";
+			}
+			if (!(nutrients[nutrient.ordinal()] >= 0) || Float.isInfinite(nutrients[nutrient.ordinal()])) {
+				return nutrient.column() + " is out of range.";
+			}
+			anyNutrient = true;
+		}
+		buffer.append(lineNumber).append(',');
+		FoodCsv.appendQuoted(buffer, externalId);
+		buffer.append(',');
+		FoodCsv.appendQuoted(buffer, name);
+		buffer.append(',').append(calories).append(',');
+		if (anyNutrient) {
+			appendVector(buffer, nutrients);
+		}
+		buffer.append('\n');
+		return null;
+	}
+
+	// A quoted array literal in Nutrient order; blank cells become NULL elements.
+	private static void appendVector(StringBuilder buffer, float[] nutrients) {
+		buffer.append("\"{");
+		for (int n = 0; n < nutrients.length; n++) {
+			if (n > 0) {
+				buffer.append(',');
+			}
+			if (Float.isNaN(nutrients[n])) {
+				buffer.append("NULL");
+			} else {
+				buffer.append(nutrients[n]);
+			}
+		}
+		buffer.append("}\"");
+	}
+
+	private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+		if (buffer.isEmpty()) {
+			return;
+		}
+		byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+		copyIn.writeToCopy(bytes, 0, bytes.length);
+		buffer.setLength(0);
+	}
+
+	private static String currentChecksum(Connection connection, String source) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(CHECKSUM_SQL)) {
+			statement.setString(1, source);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return resultSet.next() ? resultSet.getString(1) : null;
+			}
+		}
+	}
+
+	private static void recordImport(Connection connection, String source, String checksum, int rows)
+		throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(RECORD_SQL)) {
+			statement.setString(1, source);
+			statement.setString(2, checksum);
+			statement.setInt(3, rows);
+			statement.executeUpdate();
+		}
+	}
+
+	private static void execute(Connection connection, String sql) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	private static String checksum(Resource resource) {
+		try (InputStream input = resource.getInputStream()) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] buffer = new byte[READ_BUFFER_SIZE];
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (IOException ex) {
+			throw new IllegalStateException("Cannot read " + resource.getDescription() + ": " + ex.getMessage(), ex);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available.", ex);
+		}
+	}
+
+	private static String sourceName(Resource resource) {
+		String filename = resource.getFilename();
+		return filename != null ? filename : resource.getDescription();
+	}
+
+	private static String stripBom(String header) {
+		return !header.isEmpty() && header.charAt(0) == '\uFEFF' ? header.substring(1) : header;
+	}
+
+	private static long elapsedMillis(long startedNanos) {
+		return (System.nanoTime() - startedNanos) / 1_000_000;
+	}
+
+	private static final class CopyStats {
+		private int rows;
+		private int rejected;
+	}
+
+	private static final class ColumnLayout {
+		private final int externalId;
+		private final int name;
+		private final int calories;
+		// Optional, indexed by Nutrient ordinal, -1 when the CSV has no such column.
+		private final int[] nutrients;
+		private final int maxIndex;
+
+		private ColumnLayout(int externalId, int name, int calories, int[] nutrients) {
+			this.externalId = externalId;
+			this.name = name;
+			this.calories = calories;
+			this.nutrients = nutrients;
+			this.maxIndex = Math.max(externalId, Math.max(name, calories));
+		}
+
+		private static ColumnLayout of(String header) throws IOException {
+			List<String> columns = FoodCsv.parseLine(header).stream()
+				.map(column -> column.toLowerCase(Locale.ROOT))
+				.toList();
+			int externalId = columns.indexOf("external_id");
+			int name = columns.indexOf("name");
+			int calories = columns.indexOf("calories_per_100g");
+			if (externalId < 0 || name < 0 || calories < 0) {
+				throw new IOException("CSV header must contain external_id, name and calories_per_100g.");
+			}
+			int[] nutrients = new int[Nutrient.COUNT];
+			for (Nutrient nutrient : Nutrient.all()) {
+				nutrients[nutrient.ordinal()] = columns.indexOf(nutrient.column());
+			}
+			return new ColumnLayout(externalId, name, calories, nutrients);
+		}
+	}
+}
@@ -0,0 +1,305 @@
+package com.dietmath.food;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.dietmath.food.dto.FoodSuggestion;
+
+public final class FoodPrefixIndex {
+	private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final int MAX_SCANNED_ENTRIES = 4096;
+	private static final int TOP_RANKED = FoodAutocompleteService.MAX_SUGGESTIONS;
+
+	private static final FoodPrefixIndex EMPTY = new Builder("BUILTIN").build();
+
+	private final String source;
+	private final int[] ids;
+	private final int[] calories;
+	private final byte[] names;
+	private final int[] nameOffsets;
+	private final byte[] keys;
+	private final int[] keyOffsets;
+	private final int[] entryOffsets;
+	private final int[] entryFoods;
+	// Best ranks for every prefix matching more entries than a search scans, keyed by the prefix bytes.
+	private final Map<String, long[]> topRanked;
+
+	private FoodPrefixIndex(String source, int[] ids, int[] calories, byte[] names, int[] nameOffsets, byte[] keys,
+		int[] keyOffsets, int[] entryOffsets, int[] entryFoods, Map<String, long[]> topRanked) {
+		this.source = source;
+		this.ids = ids;
+		this.calories = calories;
+		this.names = names;
+		this.nameOffsets = nameOffsets;
+		this.keys = keys;
+		this.keyOffsets = keyOffsets;
+		this.entryOffsets = entryOffsets;
+		this.entryFoods = entryFoods;
+		this.topRanked = topRanked;
+	}
+
+	public static FoodPrefixIndex empty() {
+		return EMPTY;
+	}
+
+	public static Builder builder(String source) {
+		return new Builder(source);
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	public long estimatedBytes() {
+		long ranked = 0;
+		for (Map.Entry<String, long[]> entry : topRanked.entrySet()) {
+			ranked += entry.getKey().length() + 8L * entry.getValue().length;
+		}
+		return names.length + keys.length + ranked
+			+ 4L * (ids.length + calories.length + nameOffsets.length + keyOffsets.length + entryOffsets.length
+				+ entryFoods.length);
+	}
+
+	public List<FoodSuggestion> search(String query, int limit) {
+		byte[] prefix = normalize(query).getBytes(StandardCharsets.UTF_8);
+		if (prefix.length == 0 || entryOffsets.length == 0) {
+			return List.of();
+		}
+		int first = lowerBound(prefix);
+		int last = Math.min(entryOffsets.length, first + MAX_SCANNED_ENTRIES);
+		if (last < entryOffsets.length && startsWith(entryOffsets[last], keyOffsets[entryFoods[last] + 1], prefix)) {
+			long[] ranked = topRanked.get(new String(prefix, StandardCharsets.ISO_8859_1));
+			if (ranked != null) {
+				return suggestions(ranked, Math.min(limit, ranked.length));
+			}
+		}
+		long[] best = new long[Math.min(limit, last - first)];
+		int found = 0;
+		for (int entry = first; entry < last; entry++) {
+			int food = entryFoods[entry];
+			if (!startsWith(entryOffsets[entry], keyOffsets[food + 1], prefix)) {
+				break;
+			}
+			long rank = rank(keyOffsets, entryOffsets[entry], food);
+			if (found == best.length && rank >= best[found - 1]) {
+				continue;
+			}
+			found = insert(best, found, rank);
+		}
+		return suggestions(best, found);
+	}
+
+	private List<FoodSuggestion> suggestions(long[] ranks, int count) {
+		List<FoodSuggestion> matches = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			matches.add(suggestion((int) ranks[i]));
+		}
+		return matches;
+	}
+
+	// Smaller is better: matches at the start of the name, then shorter names, then insertion order.
+	private static long rank(int[] keyOffsets, int entryOffset, int food) {
+		long wordStart = entryOffset == keyOffsets[food] ? 0 : 1;
+		long keyLength = Math.min(keyOffsets[food + 1] - keyOffsets[food], 0x3FFF_FFFF);
+		return wordStart << 62 | keyLength << 32 | food;
+	}
+
+	// Keeps best[0..found) sorted and holding each food at most once, with its best rank.
+	private static int insert(long[] best, int found, long rank) {
+		int food = (int) rank;
+		for (int i = 0; i < found; i++) {
+			if ((int) best[i] == food) {
+				if (best[i] <= rank) {
+					return found;
+				}
+				System.arraycopy(best, i + 1, best, i, found - i - 1);
+				found--;
+				break;
+			}
+		}
+		int position = found;
+		while (position > 0 && best[position - 1] > rank) {
+			position--;
+		}
+		if (found < best.length) {
+			found++;
+		}
+		System.arraycopy(best, position, best, position + 1, found - position - 1);
+		best[position] = rank;
+		return found;
+	}
+
+	static String normalize(String value) {
+		if (value == null) {
+			return "";
+		}
+		String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+		String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+		return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+	}
+
+	private FoodSuggestion suggestion(int food) {
+		String name = new String(names, nameOffsets[food], nameOffsets[food + 1] - nameOffsets[food],
+			StandardCharsets.UTF_8);
+		return new FoodSuggestion(Integer.toUnsignedLong(ids[food]), name, calories[food], source);
+	}
+
+	private int lowerBound(byte[] prefix) {
+		int low = 0;
+		int high = entryOffsets.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			int food = entryFoods[mid];
+			if (compare(keys, entryOffsets[mid], keyOffsets[food + 1], prefix, 0, prefix.length) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private boolean startsWith(int offset, int end, byte[] prefix) {
+		if (end - offset < prefix.length) {
+			return false;
+		}
+		return Arrays.equals(keys, offset, offset + prefix.length, prefix, 0, prefix.length);
+	}
+
+	private static int compare(byte[] left, int leftFrom, int leftTo, byte[] right, int rightFrom, int rightTo) {
+		return Arrays.compareUnsigned(left, leftFrom, leftTo, right, rightFrom, rightTo);
+	}
+
+	public static final class Builder {
+		private final String source;
+		private final ByteArrayOutputStream names = new ByteArrayOutputStream();
+		private final ByteArrayOutputStream keys = new ByteArrayOutputStream();
+		private int[] ids = new int[64];
+		private int[] calories = new int[64];
+		private int[] nameOffsets = new int[65];
+		private int[] keyOffsets = new int[65];
+		private int[] entryOffsets = new int[256];
+		private int[] entryFoods = new int[256];
+		private int size;
+		private int entries;
+
+		private Builder(String source) {
+			this.source = source;
+		}
+
+		public Builder add(long id, String name, int caloriesPer100g) {
+			if (id <= 0 || id > 0xFFFF_FFFFL) {
+				throw new IllegalArgumentException("Food id " + id + " does not fit the packed index.");
+			}
+			String key = normalize(name);
+			if (key.isEmpty()) {
+				return this;
+			}
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				calories = Arrays.copyOf(calories, size * 2);
+				nameOffsets = Arrays.copyOf(nameOffsets, size * 2 + 1);
+				keyOffsets = Arrays.copyOf(keyOffsets, size * 2 + 1);
+			}
+			ids[size] = (int) id;
+			calories[size] = caloriesPer100g;
+			names.writeBytes(name.getBytes(StandardCharsets.UTF_8));
+			int keyStart = keys.size();
+			byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+			keys.writeBytes(keyBytes);
+			for (int i = 0; i < keyBytes.length; i++) {
+				if (i == 0 || keyBytes[i - 1] == ' ') {
+					addEntry(keyStart + i, size);
+				}
+			}
+			size++;
+			nameOffsets[size] = names.size();
+			keyOffsets[size] = keys.size();
+			return this;
+		}
+
+		public FoodPrefixIndex build() {
+			byte[] keyBytes = keys.toByteArray();
+			int[] finalKeyOffsets = Arrays.copyOf(keyOffsets, size + 1);
+			Integer[] order = new Integer[entries];
+			for (int i = 0; i < entries; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (a, b) -> compare(keyBytes, entryOffsets[a], finalKeyOffsets[entryFoods[a] + 1],
+				keyBytes, entryOffsets[b], finalKeyOffsets[entryFoods[b] + 1]));
+			int[] sortedOffsets = new int[entries];
+			int[] sortedFoods = new int[entries];
+			for (int i = 0; i < entries; i++) {
+				sortedOffsets[i] = entryOffsets[order[i]];
+				sortedFoods[i] = entryFoods[order[i]];
+			}
+			return new FoodPrefixIndex(source, Arrays.copyOf(ids, size), Arrays.copyOf(calories, size),
+				names.toByteArray(), Arrays.copyOf(nameOffsets, size + 1), keyBytes, finalKeyOffsets, sortedOffsets,
+				sortedFoods, rankLargeRanges(keyBytes, finalKeyOffsets, sortedOffsets, sortedFoods));
+		}
+
+		// Splits each oversized range by one more prefix byte until every range fits in a scan.
+		private static Map<String, long[]> rankLargeRanges(byte[] keyBytes, int[] keyOffsets, int[] offsets,
+			int[] foods) {
+			Map<String, long[]> topRanked = new HashMap<>();
+			List<int[]> ranges = List.of(new int[] { 0, offsets.length });
+			for (int depth = 1; !ranges.isEmpty(); depth++) {
+				List<int[]> larger = new ArrayList<>();
+				for (int[] range : ranges) {
+					int start = range[0];
+					while (start < range[1]) {
+						int end = start + 1;
+						if (keyOffsets[foods[start] + 1] - offsets[start] >= depth) {
+							while (end < range[1] && keyOffsets[foods[end] + 1] - offsets[end] >= depth
+								&& Arrays.equals(keyBytes, offsets[start], offsets[start] + depth, keyBytes,
+									offsets[end], offsets[end] + depth)) {
+								end++;
+							}
+							if (end - start > MAX_SCANNED_ENTRIES) {
+								String prefix = new String(keyBytes, offsets[start], depth,
+									StandardCharsets.ISO_8859_1);
+								topRanked.put(prefix, topRanks(keyOffsets, offsets, foods, start, end));
+								larger.add(new int[] { start, end });
+							}
+						}
+						start = end;
+					}
+				}
+				ranges = larger;
+			}
+			return Map.copyOf(topRanked);
+		}
+
+		private static long[] topRanks(int[] keyOffsets, int[] offsets, int[] foods, int start, int end) {
+			long[] best = new long[TOP_RANKED];
+			int found = 0;
+			for (int entry = start; entry < end; entry++) {
+				long rank = rank(keyOffsets, offsets[entry], foods[entry]);
+				if (found == best.length && rank >= best[found - 1]) {
+					continue;
+				}
+				found = insert(best, found, rank);
+			}
+			return Arrays.copyOf(best, found);
+		}
+
+		private void addEntry(int offset, int food) {
+			if (entries == entryOffsets.length) {
+				entryOffsets = Arrays.copyOf(entryOffsets, entries * 2);
+				entryFoods = Arrays.copyOf(entryFoods, entries * 2);
+			}
+			entryOffsets[entries] = offset;
+			entryFoods[entries] = food;
+			entries++;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.dietmath.food;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dietmath.food.dto.FoodSearchHit;
+import com.dietmath.food.dto.FoodSearchPage;
+
+@Service
+public class FoodSearchService {
+	public static final int MAX_QUERY_LENGTH = 100;
+	public static final int MAX_PAGE_SIZE = 100;
+
+	// Scores are at most 1, so this sentinel starts the keyset before the best possible hit.
+	private static final float FIRST_PAGE_SCORE = 2f;
+
+	private static final String THRESHOLD_SQL = "SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)";
+	// The trigram index only finds candidates; ranking them is a top-N sort capped at maxResults, so a deep page
+	// costs the same as the first.
+	private static final String SEARCH_SQL = """
+		SELECT id, name, calories_per_100g, source, score
+		FROM (
+		    SELECT id, name, calories_per_100g, source, word_similarity(?, lower(name)) AS score
+		    FROM foods
+		    WHERE (source = 'BUILTIN' OR user_id = ?)
+		      AND (? <% lower(name) OR lower(name) LIKE ? ESCAPE '\\')
+		    ORDER BY score DESC, id
+		    LIMIT ?
+		) matches
+		WHERE score < ? OR (score = ? AND id > ?)
+		ORDER BY score DESC, id
+		LIMIT ?
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final String threshold;
+	private final int maxResults;
+
+	public FoodSearchService(JdbcTemplate jdbcTemplate,
+		@Value("${dietmath.foods.search.similarity-threshold:0.4}") double threshold,
+		@Value("${dietmath.foods.search.max-results:1000}") int maxResults) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.threshold = Double.toString(threshold);
+		this.maxResults = Math.max(MAX_PAGE_SIZE, maxResults);
+	}
+
+	@Transactional(readOnly = true)
+	public FoodSearchPage search(Long userId, String query, String cursor, int limit) {
+		String term = normalize(query);
+		if (term.isEmpty()) {
+			throw new IllegalArgumentException("Search term must not be empty.");
+		}
+		Cursor after = cursor == null || cursor.isBlank() ? new Cursor(FIRST_PAGE_SCORE, 0L) : Cursor.decode(cursor);
+		jdbcTemplate.queryForObject(THRESHOLD_SQL, String.class, threshold);
+		List<FoodSearchHit> rows = jdbcTemplate.query(SEARCH_SQL,
+			(rs, rowNum) -> new FoodSearchHit(rs.getLong("id"), rs.getString("name"), rs.getInt("calories_per_100g"),
+				rs.getString("source"), rs.getFloat("score")),
+			term, userId, term, "%" + escapeLike(term) + "%", maxResults, after.score(), after.score(), after.id(),
+			limit + 1);
+		if (rows.size() <= limit) {
+			return new FoodSearchPage(rows, null);
+		}
+		List<FoodSearchHit> page = rows.subList(0, limit);
+		FoodSearchHit last = page.get(limit - 1);
+		return new FoodSearchPage(List.copyOf(page), new Cursor(last.score(), last.id()).encode());
+	}
+
+	static String normalize(String query) {
+		if (query == null) {
+			return "";
+		}
+		String term = query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+		return term.length() > MAX_QUERY_LENGTH ? term.substring(0, MAX_QUERY_LENGTH) : term;
+	}
+
+	private static String escapeLike(String term) {
+		return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	private record Cursor(float score, long id) {
+
+		String encode() {
+			String raw = Integer.toHexString(Float.floatToIntBits(score)) + ':' + Long.toString(id);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+		}
+
+		static Cursor decode(String value) {
+			try {
+				String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.US_ASCII);
+				int separator = raw.indexOf(':');
+				float score = Float.intBitsToFloat(Integer.parseUnsignedInt(raw.substring(0, separator), 16));
+				return new Cursor(score, Long.parseLong(raw.substring(separator + 1)));
+			} catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+				throw new IllegalArgumentException("Invalid cursor.");
+			}
+		}
+	}
+}
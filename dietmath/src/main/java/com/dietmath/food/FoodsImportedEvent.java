@@ -0,0 +1,4 @@
+package com.dietmath.food;
+
+public record FoodsImportedEvent(FoodImportResult result) {
+}
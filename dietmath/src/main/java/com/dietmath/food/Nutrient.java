@@ -0,0 +1,29 @@
+package com.dietmath.food;
+
+import java.util.List;
+
+public enum Nutrient {
+	// The ordinal is the index in foods.nutrients: only ever append new nutrients.
+	PROTEIN("protein_g"),
+	CARBS("carbs_g"),
+	FAT("fat_g"),
+	FIBER("fiber_g"),
+	SUGAR("sugar_g");
+
+	public static final int COUNT = values().length;
+	private static final List<Nutrient> ALL = List.of(values());
+
+	private final String column;
+
+	Nutrient(String column) {
+		this.column = column;
+	}
+
+	public String column() {
+		return column;
+	}
+
+	public static List<Nutrient> all() {
+		return ALL;
+	}
+}
@@ -0,0 +1,91 @@
+package com.dietmath.food;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+public final class NutrientTable {
+	private static final NutrientTable EMPTY = new NutrientTable(new long[0], new float[0]);
+
+	private final long[] ids;
+	private final float[] values;
+
+	private NutrientTable(long[] ids, float[] values) {
+		this.ids = ids;
+		this.values = values;
+	}
+
+	public static NutrientTable empty() {
+		return EMPTY;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static Float[] readVector(ResultSet rs, String column) throws SQLException {
+		Array array = rs.getArray(column);
+		if (array == null) {
+			return null;
+		}
+		try {
+			return (Float[]) array.getArray();
+		} finally {
+			array.free();
+		}
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	public int indexOf(long foodId) {
+		return Arrays.binarySearch(ids, foodId);
+	}
+
+	public void accumulate(int row, double grams, double[] totals, int offset) {
+		double factor = grams / 100.0;
+		int base = row * Nutrient.COUNT;
+		for (int n = 0; n < Nutrient.COUNT; n++) {
+			totals[offset + n] += values[base + n] * factor;
+		}
+	}
+
+	public float get(int row, Nutrient nutrient) {
+		return values[row * Nutrient.COUNT + nutrient.ordinal()];
+	}
+
+	public static final class Builder {
+		private long[] ids = new long[256];
+		private float[] values = new float[256 * Nutrient.COUNT];
+		private int size;
+
+		private Builder() {
+		}
+
+		public Builder add(long id, Float[] nutrients) {
+			if (size > 0 && id <= ids[size - 1]) {
+				throw new IllegalArgumentException("Food ids must be added in ascending order.");
+			}
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				values = Arrays.copyOf(values, size * 2 * Nutrient.COUNT);
+			}
+			ids[size] = id;
+			int base = size * Nutrient.COUNT;
+			int length = nutrients != null ? Math.min(nutrients.length, Nutrient.COUNT) : 0;
+			for (int n = 0; n < length; n++) {
+				Float value = nutrients[n];
+				values[base + n] = value != null && !value.isNaN() ? value : 0f;
+			}
+			size++;
+			return this;
+		}
+
+		public NutrientTable build() {
+			return size == 0 ? EMPTY
+				: new NutrientTable(Arrays.copyOf(ids, size), Arrays.copyOf(values, size * Nutrient.COUNT));
+		}
+	}
+}
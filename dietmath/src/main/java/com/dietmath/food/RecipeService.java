@@ -0,0 +1,194 @@
+package com.dietmath.food;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.dietmath.food.dto.FoodSuggestion;
+import com.dietmath.food.dto.RecipeRequest;
+import com.dietmath.food.dto.RecipeView;
+
+@Service
+public class RecipeService {
+	private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtextextended(?, 0))";
+	private static final String INSERT_FOOD_SQL = """
+		INSERT INTO foods (name, calories_per_100g, source, user_id)
+		VALUES (?, 0, 'USER', ?)
+		RETURNING id
+		""";
+	private static final String INSERT_RECIPE_SQL = "INSERT INTO recipes (food_id, yield_grams) VALUES (?, ?)";
+	private static final String OWNED_SQL = """
+		SELECT EXISTS (
+		    SELECT 1 FROM recipes r JOIN foods f ON f.id = r.food_id
+		    WHERE r.food_id = ? AND f.user_id = ?
+		)
+		""";
+	private static final String UPDATE_FOOD_SQL = "UPDATE foods SET name = ? WHERE id = ? AND name IS DISTINCT FROM ?";
+	private static final String UPDATE_RECIPE_SQL = """
+		UPDATE recipes SET yield_grams = ?, updated_at = NOW() WHERE food_id = ?
+		""";
+	private static final String DELETE_INGREDIENTS_SQL = "DELETE FROM recipe_ingredients WHERE recipe_id = ?";
+	private static final String INSERT_INGREDIENT_SQL = """
+		INSERT INTO recipe_ingredients (recipe_id, ingredient_id, grams) VALUES (?, ?, ?)
+		""";
+	private static final String CYCLE_SQL = """
+		WITH RECURSIVE reachable (id) AS (
+		    SELECT ingredient_id FROM recipe_ingredients WHERE recipe_id = ANY (?)
+		    UNION
+		    SELECT i.ingredient_id FROM recipe_ingredients i JOIN reachable r ON i.recipe_id = r.id
+		)
+		SELECT EXISTS (SELECT 1 FROM reachable WHERE id = ?)
+		""";
+	private static final String RECOMPUTE_SQL = """
+		UPDATE foods
+		SET calories_per_100g = recipe_calories_per_100g(id), nutrients = recipe_nutrients_per_100g(id)
+		WHERE id = ?
+		    AND (calories_per_100g IS DISTINCT FROM recipe_calories_per_100g(id)
+		        OR nutrients IS DISTINCT FROM recipe_nutrients_per_100g(id))
+		""";
+	private static final String VIEW_SQL = """
+		SELECT f.name, f.calories_per_100g, r.yield_grams
+		FROM recipes r JOIN foods f ON f.id = r.food_id
+		WHERE r.food_id = ? AND f.user_id = ?
+		""";
+	private static final String INGREDIENTS_SQL = """
+		SELECT i.ingredient_id, f.name, f.calories_per_100g, i.grams
+		FROM recipe_ingredients i JOIN foods f ON f.id = i.ingredient_id
+		WHERE i.recipe_id = ?
+		ORDER BY i.grams DESC, i.ingredient_id
+		""";
+	private static final String DELETE_SQL = """
+		DELETE FROM foods f
+		USING recipes r
+		WHERE r.food_id = f.id AND f.id = ? AND f.user_id = ?
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final BuiltinFoodCatalog foodCatalog;
+	private final FoodAutocompleteService foodAutocompleteService;
+
+	public RecipeService(JdbcTemplate jdbcTemplate, BuiltinFoodCatalog foodCatalog,
+		FoodAutocompleteService foodAutocompleteService) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.foodCatalog = foodCatalog;
+		this.foodAutocompleteService = foodAutocompleteService;
+	}
+
+	@Transactional
+	public RecipeView create(Long userId, RecipeRequest request) {
+		lockRecipes(userId);
+		Map<Long, BigDecimal> ingredients = ingredients(userId, request);
+		Long recipeId = jdbcTemplate.queryForObject(INSERT_FOOD_SQL, Long.class, request.name().strip(), userId);
+		jdbcTemplate.update(INSERT_RECIPE_SQL, recipeId, request.yieldGrams());
+		writeIngredients(recipeId, ingredients);
+		evictAutocompleteAfterCommit(userId);
+		return view(userId, recipeId).orElseThrow();
+	}
+
+	@Transactional
+	public Optional<RecipeView> update(Long userId, Long recipeId, RecipeRequest request) {
+		lockRecipes(userId);
+		if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(OWNED_SQL, Boolean.class, recipeId, userId))) {
+			return Optional.empty();
+		}
+		Map<Long, BigDecimal> ingredients = ingredients(userId, request);
+		if (ingredients.containsKey(recipeId) || containsRecipe(ingredients.keySet().toArray(Long[]::new), recipeId)) {
+			throw new IllegalArgumentException("A recipe cannot contain itself.");
+		}
+		String name = request.name().strip();
+		jdbcTemplate.update(UPDATE_FOOD_SQL, name, recipeId, name);
+		jdbcTemplate.update(UPDATE_RECIPE_SQL, request.yieldGrams(), recipeId);
+		jdbcTemplate.update(DELETE_INGREDIENTS_SQL, recipeId);
+		writeIngredients(recipeId, ingredients);
+		// Ingredient and yield edits change the calories of this recipe and of every recipe that contains it.
+		evictAutocompleteAfterCommit(userId);
+		return view(userId, recipeId);
+	}
+
+	@Transactional(readOnly = true)
+	public Optional<RecipeView> get(Long userId, Long recipeId) {
+		return view(userId, recipeId);
+	}
+
+	@Transactional
+	public boolean delete(Long userId, Long recipeId) {
+		lockRecipes(userId);
+		int deleted;
+		try {
+			deleted = jdbcTemplate.update(DELETE_SQL, recipeId, userId);
+		} catch (DataIntegrityViolationException ex) {
+			throw new IllegalStateException("Recipe is used by diary entries or other recipes.", ex);
+		}
+		if (deleted > 0) {
+			evictAutocompleteAfterCommit(userId);
+		}
+		return deleted > 0;
+	}
+
+	// One user's recipe edits are serialised so two concurrent saves cannot close a cycle between them.
+	private void lockRecipes(Long userId) {
+		jdbcTemplate.query(LOCK_SQL, (RowCallbackHandler) rs -> {
+		}, "dietmath.recipes:" + userId);
+	}
+
+	private boolean containsRecipe(Long[] ingredientIds, Long recipeId) {
+		Boolean found = jdbcTemplate.query(connection -> {
+			var statement = connection.prepareStatement(CYCLE_SQL);
+			statement.setArray(1, connection.createArrayOf("bigint", ingredientIds));
+			statement.setLong(2, recipeId);
+			return statement;
+		}, rs -> rs.next() && rs.getBoolean(1));
+		return Boolean.TRUE.equals(found);
+	}
+
+	private Map<Long, BigDecimal> ingredients(Long userId, RecipeRequest request) {
+		Map<Long, BigDecimal> ingredients = new LinkedHashMap<>();
+		for (RecipeRequest.Ingredient ingredient : request.ingredients()) {
+			ingredients.merge(ingredient.foodId(), ingredient.grams(), BigDecimal::add);
+		}
+		Map<Long, FoodSuggestion> visible = foodCatalog.resolve(userId, ingredients.keySet());
+		for (Long foodId : ingredients.keySet()) {
+			if (!visible.containsKey(foodId)) {
+				throw new IllegalArgumentException("Food " + foodId + " not found.");
+			}
+		}
+		return ingredients;
+	}
+
+	private void writeIngredients(Long recipeId, Map<Long, BigDecimal> ingredients) {
+		List<Object[]> rows = ingredients.entrySet().stream()
+			.map(ingredient -> new Object[] { recipeId, ingredient.getKey(), ingredient.getValue() })
+			.toList();
+		jdbcTemplate.batchUpdate(INSERT_INGREDIENT_SQL, rows);
+		jdbcTemplate.update(RECOMPUTE_SQL, recipeId);
+	}
+
+	private Optional<RecipeView> view(Long userId, Long recipeId) {
+		List<RecipeView.Ingredient> ingredients = jdbcTemplate.query(INGREDIENTS_SQL,
+			(rs, rowNum) -> new RecipeView.Ingredient(rs.getLong("ingredient_id"), rs.getString("name"),
+				rs.getInt("calories_per_100g"), rs.getBigDecimal("grams")), recipeId);
+		return jdbcTemplate.query(VIEW_SQL, (rs, rowNum) -> new RecipeView(recipeId, rs.getString("name"),
+			rs.getInt("calories_per_100g"), rs.getBigDecimal("yield_grams"), ingredients), recipeId, userId)
+			.stream()
+			.findFirst();
+	}
+
+	private void evictAutocompleteAfterCommit(Long userId) {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				foodAutocompleteService.evictUser(userId);
+			}
+		});
+	}
+}
@@ -0,0 +1,4 @@
+package com.dietmath.food.dto;
+
+public record FoodSearchHit(Long id, String name, int caloriesPer100g, String source, float score) {
+}
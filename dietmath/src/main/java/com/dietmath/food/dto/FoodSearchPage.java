@@ -0,0 +1,6 @@
+package com.dietmath.food.dto;
+
+import java.util.List;
+
+public record FoodSearchPage(List<FoodSearchHit> items, String nextCursor) {
+}
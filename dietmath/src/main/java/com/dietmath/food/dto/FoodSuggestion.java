@@ -0,0 +1,4 @@
+package com.dietmath.food.dto;
+
+public record FoodSuggestion(Long id, String name, int caloriesPer100g, String source) {
+}
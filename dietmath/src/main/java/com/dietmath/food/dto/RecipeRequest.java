@@ -0,0 +1,35 @@
+package com.dietmath.food.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public record RecipeRequest(
+	@NotBlank
+	@Size(max = 255)
+	String name,
+	@Positive
+	@Digits(integer = 8, fraction = 2)
+	BigDecimal yieldGrams,
+	@NotEmpty
+	@Size(max = 100)
+	List<@Valid @NotNull Ingredient> ingredients
+) {
+
+	public record Ingredient(
+		@NotNull
+		Long foodId,
+		@NotNull
+		@Positive
+		@Digits(integer = 8, fraction = 2)
+		BigDecimal grams
+	) {
+	}
+}
@@ -0,0 +1,11 @@
+package com.dietmath.food.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record RecipeView(Long id, String name, int caloriesPer100g, BigDecimal yieldGrams,
+	List<Ingredient> ingredients) {
+
+	public record Ingredient(Long foodId, String name, int caloriesPer100g, BigDecimal grams) {
+	}
+}
@@ -0,0 +1,286 @@
+package com.dietmath.live;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.dietmath.sync.ContentVersion;
+import com.dietmath.sync.ContentVersionService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Service
+public class LiveUpdateService implements DisposableBean, MeterBinder {
+	private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+
+	static final String CHANNEL = "dietmath_user_data";
+	private static final int POLL_MILLIS = 5_000;
+	private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+
+	private final ContentVersionService contentVersionService;
+	private final DataSourceProperties dataSourceProperties;
+	private final boolean enabled;
+	private final Duration timeout;
+	private final int maxStreamsPerUser;
+	private final Map<Long, Set<Stream>> streams = new ConcurrentHashMap<>();
+	private final AtomicInteger open = new AtomicInteger();
+	private final LongAdder events = new LongAdder();
+	// Sends can block on a slow client; each stream drains on at most one virtual thread, off the listener.
+	private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+	private volatile boolean running;
+	private volatile boolean listening;
+	private volatile Thread listener;
+
+	public LiveUpdateService(ContentVersionService contentVersionService, DataSourceProperties dataSourceProperties,
+		@Value("${dietmath.live.enabled:true}") boolean enabled,
+		@Value("${dietmath.live.timeout:30m}") Duration timeout,
+		@Value("${dietmath.live.max-streams-per-user:5}") int maxStreamsPerUser) {
+		this.contentVersionService = contentVersionService;
+		this.dataSourceProperties = dataSourceProperties;
+		this.enabled = enabled;
+		this.timeout = timeout;
+		this.maxStreamsPerUser = Math.max(1, maxStreamsPerUser);
+	}
+
+	public SseEmitter open(Long userId) {
+		if (!enabled) {
+			throw new IllegalStateException("Live updates are disabled.");
+		}
+		SseEmitter emitter = new SseEmitter(timeout.toMillis());
+		Stream stream = new Stream(userId, emitter);
+		boolean[] added = new boolean[1];
+		streams.compute(userId, (id, current) -> {
+			Set<Stream> userStreams = current != null ? current : ConcurrentHashMap.newKeySet();
+			if (userStreams.size() < maxStreamsPerUser) {
+				added[0] = userStreams.add(stream);
+			}
+			return userStreams;
+		});
+		if (!added[0]) {
+			return null;
+		}
+		open.incrementAndGet();
+		Runnable remove = () -> remove(stream);
+		emitter.onCompletion(remove);
+		emitter.onTimeout(remove);
+		emitter.onError(error -> remove.run());
+		// The current version first, so a client that missed events while disconnected knows whether to refetch.
+		ContentVersion version = contentVersionService.current(userId);
+		if (version != null) {
+			stream.offer(version.dataVersion());
+		}
+		return emitter;
+	}
+
+	public int openStreams() {
+		return open.get();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled || running) {
+			return;
+		}
+		running = true;
+		listener = Thread.ofVirtual().name("live-listener").start(this::listen);
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		running = false;
+		Thread thread = listener;
+		if (thread != null) {
+			thread.join(POLL_MILLIS * 2L);
+		}
+		streams.values().forEach(userStreams -> userStreams.forEach(stream -> stream.emitter.complete()));
+		senders.shutdown();
+	}
+
+	// Proxies and browsers drop connections that stay silent; a comment line keeps them open and finds dead ones.
+	@Scheduled(fixedDelayString = "${dietmath.live.heartbeat-ms:25000}")
+	public void heartbeat() {
+		streams.values().forEach(userStreams -> userStreams.forEach(Stream::keepAlive));
+	}
+
+	private void listen() {
+		long reconnectMillis = 1_000;
+		boolean reconnect = false;
+		while (running) {
+			try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+				dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("LISTEN " + CHANNEL);
+				}
+				PGConnection pgConnection = connection.unwrap(PGConnection.class);
+				listening = true;
+				reconnectMillis = 1_000;
+				log.info("Listening for user data changes on {}.", CHANNEL);
+				if (reconnect) {
+					resync();
+				}
+				while (running) {
+					PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+					if (notifications != null) {
+						for (PGNotification notification : notifications) {
+							dispatch(notification.getParameter());
+						}
+					}
+				}
+			} catch (SQLException | RuntimeException ex) {
+				listening = false;
+				if (!running) {
+					break;
+				}
+				log.warn("Live update listener lost its connection, retrying in {} ms: {}", reconnectMillis,
+					ex.getMessage());
+				reconnect = true;
+				try {
+					Thread.sleep(reconnectMillis);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				reconnectMillis = Math.min(reconnectMillis * 2, MAX_RECONNECT_DELAY.toMillis());
+			}
+		}
+		listening = false;
+	}
+
+	private void dispatch(String payload) {
+		int split = payload.indexOf(':');
+		if (split <= 0) {
+			return;
+		}
+		long userId;
+		long dataVersion;
+		try {
+			userId = Long.parseLong(payload, 0, split, 10);
+			dataVersion = Long.parseLong(payload, split + 1, payload.length(), 10);
+		} catch (NumberFormatException ex) {
+			log.debug("Ignoring malformed notification payload {}.", payload);
+			return;
+		}
+		Set<Stream> userStreams = streams.get(userId);
+		if (userStreams != null) {
+			userStreams.forEach(stream -> stream.offer(dataVersion));
+		}
+	}
+
+	// Notifications sent while the listener was down are lost, so every open stream gets its current version.
+	private void resync() {
+		for (Long userId : streams.keySet()) {
+			ContentVersion version = contentVersionService.current(userId);
+			if (version != null) {
+				dispatch(userId + ":" + version.dataVersion());
+			}
+		}
+	}
+
+	private void remove(Stream stream) {
+		streams.computeIfPresent(stream.userId, (id, current) -> {
+			if (current.remove(stream)) {
+				open.decrementAndGet();
+			}
+			return current.isEmpty() ? null : current;
+		});
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("dietmath.live.streams", open, AtomicInteger::get)
+			.description("Open live update streams")
+			.register(registry);
+		Gauge.builder("dietmath.live.listening", this, service -> service.listening ? 1 : 0)
+			.description("1 while the NOTIFY listener connection is up")
+			.register(registry);
+		FunctionCounter.builder("dietmath.live.events", events, LongAdder::sum)
+			.description("Live update events sent to streams")
+			.register(registry);
+	}
+
+	// Only the newest version waits to be sent and a keep-alive is one flag, so a stalled client holds a single
+	// blocked sender no matter how many changes arrive, and versions never go out of order.
+	private final class Stream {
+		private final Long userId;
+		private final SseEmitter emitter;
+		private final AtomicLong pendingVersion = new AtomicLong(-1);
+		private final AtomicBoolean keepAlivePending = new AtomicBoolean();
+		private final AtomicBoolean draining = new AtomicBoolean();
+		private volatile long sentVersion = -1;
+
+		private Stream(Long userId, SseEmitter emitter) {
+			this.userId = userId;
+			this.emitter = emitter;
+		}
+
+		private void offer(long dataVersion) {
+			pendingVersion.accumulateAndGet(dataVersion, Math::max);
+			schedule();
+		}
+
+		private void keepAlive() {
+			keepAlivePending.set(true);
+			schedule();
+		}
+
+		private void schedule() {
+			if (draining.compareAndSet(false, true)) {
+				senders.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			try {
+				while (true) {
+					long version = pendingVersion.getAndSet(-1);
+					boolean keepAlive = keepAlivePending.getAndSet(false);
+					if (version > sentVersion) {
+						emitter.send(SseEmitter.event().name("totals").data("{\"dataVersion\":" + version + "}"));
+						sentVersion = version;
+						events.increment();
+					} else if (keepAlive) {
+						emitter.send(SseEmitter.event().comment("keep-alive"));
+					} else {
+						break;
+					}
+				}
+			} catch (IOException | IllegalStateException ex) {
+				remove(this);
+				return;
+			} finally {
+				draining.set(false);
+			}
+			if (pendingVersion.get() > sentVersion || keepAlivePending.get()) {
+				schedule();
+			}
+		}
+	}
+}
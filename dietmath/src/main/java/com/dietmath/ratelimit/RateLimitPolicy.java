@@ -0,0 +1,29 @@
+package com.dietmath.ratelimit;
+
+import java.util.List;
+
+public enum RateLimitPolicy {
+	LOGIN(List.of(new Limit("login-ip", Key.IP), new Limit("login-username", Key.USERNAME))),
+	REGISTER(List.of(new Limit("register-ip", Key.IP))),
+	BULK(List.of(new Limit("bulk-user", Key.USER))),
+	EXPORT(List.of(new Limit("export-user", Key.USER)));
+
+	private final List<Limit> limits;
+
+	RateLimitPolicy(List<Limit> limits) {
+		this.limits = limits;
+	}
+
+	public List<Limit> limits() {
+		return limits;
+	}
+
+	public enum Key {
+		IP,
+		USERNAME,
+		USER
+	}
+
+	public record Limit(String limiter, Key key) {
+	}
+}
@@ -0,0 +1,132 @@
+package com.dietmath.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class RateLimiter {
+	private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+	private final String name;
+	private final long intervalNanos;
+	private final long toleranceNanos;
+	private final int maxKeys;
+	private final LongSupplier nanoClock;
+	// GCRA: each key holds only its theoretical arrival time.
+	private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+	private final LongAdder allowed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder overflowed = new LongAdder();
+	private final AtomicLong lastSweep;
+
+	public RateLimiter(String name, int perMinute, int burst, int maxKeys) {
+		this(name, perMinute, burst, maxKeys, System::nanoTime);
+	}
+
+	RateLimiter(String name, int perMinute, int burst, int maxKeys, LongSupplier nanoClock) {
+		if (perMinute <= 0 || burst <= 0) {
+			throw new IllegalArgumentException("Rate limit " + name + " needs a positive rate and burst.");
+		}
+		this.name = name;
+		this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+		this.toleranceNanos = intervalNanos * (burst - 1);
+		this.maxKeys = Math.max(1, maxKeys);
+		this.nanoClock = nanoClock;
+		this.lastSweep = new AtomicLong(nanoClock.getAsLong() - intervalNanos);
+	}
+
+	public String name() {
+		return name;
+	}
+
+	// The wait tryAcquire would answer right now, without taking a token.
+	public long check(String key) {
+		long now = nanoClock.getAsLong();
+		AtomicLong arrival = arrivals.get(key);
+		if (arrival == null) {
+			return 0;
+		}
+		long current = arrival.get();
+		long start = current - now > 0 ? current : now;
+		return Math.max(0, start - now - toleranceNanos);
+	}
+
+	public long tryAcquire(String key) {
+		long now = nanoClock.getAsLong();
+		AtomicLong arrival = arrival(key, now);
+		if (arrival == null) {
+			// Table full of active keys: fail closed, or a flood of fresh keys would switch limiting off for everyone.
+			overflowed.increment();
+			rejected.increment();
+			return intervalNanos;
+		}
+		while (true) {
+			long current = arrival.get();
+			long start = current - now > 0 ? current : now;
+			long wait = start - now - toleranceNanos;
+			if (wait > 0) {
+				rejected.increment();
+				return wait;
+			}
+			if (arrival.compareAndSet(current, start + intervalNanos)) {
+				allowed.increment();
+				return 0;
+			}
+		}
+	}
+
+	public int evictIdle() {
+		long now = nanoClock.getAsLong();
+		int evicted = 0;
+		for (var entry : arrivals.entrySet()) {
+			// A request racing with the removal may still update the dropped counter: at worst one free token.
+			if (entry.getValue().get() - now <= 0 && arrivals.remove(entry.getKey(), entry.getValue())) {
+				evicted++;
+			}
+		}
+		return evicted;
+	}
+
+	public int size() {
+		return arrivals.size();
+	}
+
+	public long allowed() {
+		return allowed.sum();
+	}
+
+	public long rejected() {
+		return rejected.sum();
+	}
+
+	public long overflowed() {
+		return overflowed.sum();
+	}
+
+	private AtomicLong arrival(String key, long now) {
+		AtomicLong arrival = arrivals.get(key);
+		if (arrival != null) {
+			return arrival;
+		}
+		if (arrivals.size() >= maxKeys) {
+			// Sweep at most once per interval here, so a flood of new keys cannot turn every request into a scan.
+			long last = lastSweep.get();
+			boolean swept = now - last >= intervalNanos && lastSweep.compareAndSet(last, now);
+			if (swept) {
+				evictIdle();
+			}
+			if (arrivals.size() >= maxKeys) {
+				if (swept) {
+					log.warn("Rate limiter {} is full with {} active keys, rejecting new keys.", name, arrivals.size());
+				}
+				return null;
+			}
+		}
+		return arrivals.computeIfAbsent(key, ignored -> new AtomicLong(now));
+	}
+}
@@ -0,0 +1,77 @@
+package com.dietmath.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Component
+public class RateLimits implements MeterBinder {
+	private static final Map<String, int[]> DEFAULTS = Map.of(
+		"login-ip", new int[] { 30, 10 },
+		"login-username", new int[] { 10, 5 },
+		"register-ip", new int[] { 5, 5 },
+		"bulk-user", new int[] { 30, 10 },
+		"export-user", new int[] { 10, 5 });
+
+	private final boolean enabled;
+	private final Map<String, RateLimiter> limiters = new LinkedHashMap<>();
+
+	public RateLimits(Environment environment, @Value("${dietmath.rate-limit.enabled:true}") boolean enabled,
+		@Value("${dietmath.rate-limit.max-keys:10000}") int maxKeys) {
+		this.enabled = enabled;
+		for (RateLimitPolicy policy : RateLimitPolicy.values()) {
+			for (RateLimitPolicy.Limit limit : policy.limits()) {
+				String name = limit.limiter();
+				int[] defaults = DEFAULTS.get(name);
+				String prefix = "dietmath.rate-limit." + name;
+				limiters.computeIfAbsent(name, ignored -> new RateLimiter(name,
+					environment.getProperty(prefix + ".per-minute", Integer.class, defaults[0]),
+					environment.getProperty(prefix + ".burst", Integer.class, defaults[1]), maxKeys));
+			}
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public RateLimiter get(String name) {
+		return limiters.get(name);
+	}
+
+	@Scheduled(fixedDelayString = "${dietmath.rate-limit.sweep-ms:60000}")
+	public void evictIdle() {
+		limiters.values().forEach(RateLimiter::evictIdle);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (RateLimiter limiter : limiters.values()) {
+			FunctionCounter.builder("dietmath.ratelimit.rejected", limiter, RateLimiter::rejected)
+				.description("Requests answered with 429 by a rate limiter")
+				.tag("limiter", limiter.name())
+				.register(registry);
+			FunctionCounter.builder("dietmath.ratelimit.allowed", limiter, RateLimiter::allowed)
+				.description("Requests let through by a rate limiter")
+				.tag("limiter", limiter.name())
+				.register(registry);
+			FunctionCounter.builder("dietmath.ratelimit.overflowed", limiter, RateLimiter::overflowed)
+				.description("Requests let through unchecked because the limiter's key table was full")
+				.tag("limiter", limiter.name())
+				.register(registry);
+			Gauge.builder("dietmath.ratelimit.keys", limiter, RateLimiter::size)
+				.description("Keys currently tracked by a rate limiter")
+				.tag("limiter", limiter.name())
+				.register(registry);
+		}
+	}
+}
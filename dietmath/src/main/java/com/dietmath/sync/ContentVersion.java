@@ -0,0 +1,10 @@
+package com.dietmath.sync;
+
+import java.time.Instant;
+
+public record ContentVersion(Long userId, Instant updatedAt, long dataVersion, Instant dataChangedAt) {
+
+	public Instant lastModified() {
+		return updatedAt.isAfter(dataChangedAt) ? updatedAt : dataChangedAt;
+	}
+}
@@ -0,0 +1,32 @@
+package com.dietmath.sync;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ContentVersionService {
+	private static final String VERSION_SQL = """
+		SELECT updated_at, data_version, data_changed_at
+		FROM users
+		WHERE id = ?
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public ContentVersionService(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	// Outside a read-only transaction, so it is one autocommit read on the primary: a lagging data_version from the
+	// replica would answer a stale 304.
+	public ContentVersion current(Long userId) {
+		List<ContentVersion> versions = jdbcTemplate.query(VERSION_SQL,
+			(rs, rowNum) -> new ContentVersion(userId, rs.getObject("updated_at", OffsetDateTime.class).toInstant(),
+				rs.getLong("data_version"), rs.getObject("data_changed_at", OffsetDateTime.class).toInstant()),
+			userId);
+		return versions.isEmpty() ? null : versions.get(0);
+	}
+}
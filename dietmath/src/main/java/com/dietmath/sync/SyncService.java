@@ -0,0 +1,126 @@
+package com.dietmath.sync;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dietmath.diary.dto.DiaryEntryView;
+import com.dietmath.sync.dto.SyncDeletion;
+import com.dietmath.sync.dto.SyncPage;
+import com.dietmath.sync.dto.SyncWeight;
+
+@Service
+public class SyncService {
+	public static final int MAX_PAGE_SIZE = 1000;
+
+	private static final String WEIGHTS_SQL = """
+		SELECT change_seq, id, weight, goal_weight, goal_date, calorie_strategy, recorded_at
+		FROM user_weights
+		WHERE user_id = ? AND change_seq > ?
+		ORDER BY change_seq
+		LIMIT ?
+		""";
+	private static final String DIARY_SQL = """
+		SELECT change_seq, id, food_id, entry_date, grams, calories
+		FROM diary_entries
+		WHERE user_id = ? AND change_seq > ?
+		ORDER BY change_seq
+		LIMIT ?
+		""";
+	private static final String TOMBSTONES_SQL = """
+		SELECT change_seq, entity, entity_id
+		FROM sync_tombstones
+		WHERE user_id = ? AND change_seq > ?
+		ORDER BY change_seq
+		LIMIT ?
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public SyncService(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Transactional(readOnly = true)
+	public SyncPage changesSince(Long userId, long since, int limit) {
+		int fetch = limit + 1;
+		List<Change<SyncWeight>> weights = jdbcTemplate.query(WEIGHTS_SQL, change(SyncService::weight), userId, since,
+			fetch);
+		List<Change<DiaryEntryView>> diary = jdbcTemplate.query(DIARY_SQL, change(SyncService::diaryEntry), userId,
+			since, fetch);
+		// A client starting from scratch has nothing to delete.
+		List<Change<SyncDeletion>> deleted = since == 0 ? List.of()
+			: jdbcTemplate.query(TOMBSTONES_SQL, change(SyncService::deletion), userId, since, fetch);
+
+		boolean hasMore = weights.size() + diary.size() + deleted.size() > limit;
+		long cursor = cutoff(since, limit, weights, diary, deleted);
+		return new SyncPage(cursor, hasMore, upTo(cursor, weights), upTo(cursor, diary), upTo(cursor, deleted));
+	}
+
+	@SafeVarargs
+	private static long cutoff(long since, int limit, List<? extends Change<?>>... sources) {
+		int total = 0;
+		for (List<? extends Change<?>> source : sources) {
+			total += source.size();
+		}
+		long[] seqs = new long[total];
+		int i = 0;
+		for (List<? extends Change<?>> source : sources) {
+			for (Change<?> change : source) {
+				seqs[i++] = change.seq();
+			}
+		}
+		if (total == 0) {
+			return since;
+		}
+		Arrays.sort(seqs);
+		return seqs[Math.min(limit, total) - 1];
+	}
+
+	private static <T> List<T> upTo(long cutoff, List<Change<T>> changes) {
+		List<T> items = new ArrayList<>(changes.size());
+		for (Change<T> change : changes) {
+			if (change.seq() <= cutoff) {
+				items.add(change.item());
+			}
+		}
+		return items;
+	}
+
+	private static <T> RowMapper<Change<T>> change(RowReader<T> reader) {
+		return (rs, rowNum) -> new Change<>(rs.getLong("change_seq"), reader.read(rs));
+	}
+
+	private static SyncWeight weight(ResultSet rs) throws SQLException {
+		Date goalDate = rs.getDate("goal_date");
+		return new SyncWeight(rs.getLong("id"), rs.getBigDecimal("weight"), rs.getBigDecimal("goal_weight"),
+			goalDate != null ? goalDate.toLocalDate() : null, rs.getString("calorie_strategy"),
+			rs.getObject("recorded_at", OffsetDateTime.class).toInstant());
+	}
+
+	private static DiaryEntryView diaryEntry(ResultSet rs) throws SQLException {
+		return new DiaryEntryView(rs.getLong("id"), rs.getLong("food_id"), rs.getDate("entry_date").toLocalDate(),
+			rs.getBigDecimal("grams"), rs.getBigDecimal("calories"));
+	}
+
+	private static SyncDeletion deletion(ResultSet rs) throws SQLException {
+		return new SyncDeletion(rs.getString("entity"), rs.getLong("entity_id"));
+	}
+
+	private record Change<T>(long seq, T item) {
+	}
+
+	@FunctionalInterface
+	private interface RowReader<T> {
+		T read(ResultSet rs) throws SQLException;
+	}
+}
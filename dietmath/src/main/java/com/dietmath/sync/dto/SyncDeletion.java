@@ -0,0 +1,4 @@
+package com.dietmath.sync.dto;
+
+public record SyncDeletion(String entity, Long id) {
+}
@@ -0,0 +1,9 @@
+package com.dietmath.sync.dto;
+
+import java.util.List;
+
+import com.dietmath.diary.dto.DiaryEntryView;
+
+public record SyncPage(long cursor, boolean hasMore, List<SyncWeight> weights, List<DiaryEntryView> diary,
+	List<SyncDeletion> deleted) {
+}
@@ -0,0 +1,9 @@
+package com.dietmath.sync.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record SyncWeight(Long id, BigDecimal weight, BigDecimal goalWeight, LocalDate goalDate, String calorieStrategy,
+	Instant recordedAt) {
+}
@@ -0,0 +1,61 @@
+package com.dietmath.user;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public class CalorieEngine {
+	public static final double CALORIES_PER_KG = 7700.0;
+	public static final double MAINTENANCE_PER_KG = 30.0;
+
+	public double bmi(double weightKg, int heightCm) {
+		if (heightCm <= 0 || weightKg <= 0) {
+			return Double.NaN;
+		}
+		double heightMeters = heightCm / 100.0;
+		return weightKg / (heightMeters * heightMeters);
+	}
+
+	public double maintenance(double weightKg) {
+		return weightKg * MAINTENANCE_PER_KG;
+	}
+
+	public double target(double weightKg, double goalWeightKg, long daysLeft) {
+		double maintenance = maintenance(weightKg);
+		if (daysLeft <= 0) {
+			return maintenance;
+		}
+		return maintenance - ((weightKg - goalWeightKg) * CALORIES_PER_KG) / daysLeft;
+	}
+
+	public DailyTarget dailyTarget(CalorieStrategy strategy, double weightKg, Double goalWeightKg, LocalDate goalDate,
+		LocalDate today) {
+		if (goalWeightKg == null || goalDate == null) {
+			return new DailyTarget(DailyTarget.Kind.NO_GOAL, strategy, maintenance(weightKg));
+		}
+		long daysLeft = ChronoUnit.DAYS.between(today, goalDate);
+		if (daysLeft <= 0) {
+			return new DailyTarget(DailyTarget.Kind.GOAL_PASSED, strategy, maintenance(weightKg));
+		}
+		return new DailyTarget(DailyTarget.Kind.GOAL, strategy, target(weightKg, goalWeightKg, daysLeft));
+	}
+
+	public void fillTrajectory(CalorieStrategy strategy, double currentWeightKg, double baseWeightKg,
+		double goalWeightKg, long daysToGoal, int days, CalorieTrajectory out) {
+		int length = Math.max(0, days);
+		double[] targets = out.targetsArray(length);
+		double[] weights = out.weightsArray(length);
+		boolean fixed = strategy == CalorieStrategy.FIXED;
+		double weight = currentWeightKg;
+		for (int day = 0; day < length; day++) {
+			long daysLeft = daysToGoal - day;
+			double target = target(fixed ? baseWeightKg : weight, goalWeightKg, daysLeft);
+			targets[day] = target;
+			weights[day] = weight;
+			weight -= (maintenance(weight) - target) / CALORIES_PER_KG;
+		}
+		out.setLength(length);
+	}
+}
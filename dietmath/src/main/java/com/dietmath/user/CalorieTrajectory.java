@@ -0,0 +1,60 @@
+package com.dietmath.user;
+
+import java.util.Arrays;
+
+public final class CalorieTrajectory {
+	private double[] targets;
+	private double[] weights;
+	private int length;
+
+	public CalorieTrajectory(int capacity) {
+		this.targets = new double[Math.max(1, capacity)];
+		this.weights = new double[Math.max(1, capacity)];
+	}
+
+	public int length() {
+		return length;
+	}
+
+	public double target(int day) {
+		checkDay(day);
+		return targets[day];
+	}
+
+	public double weight(int day) {
+		checkDay(day);
+		return weights[day];
+	}
+
+	public double[] targetsCopy() {
+		return Arrays.copyOf(targets, length);
+	}
+
+	public double[] weightsCopy() {
+		return Arrays.copyOf(weights, length);
+	}
+
+	double[] targetsArray(int capacity) {
+		if (targets.length < capacity) {
+			targets = new double[capacity];
+		}
+		return targets;
+	}
+
+	double[] weightsArray(int capacity) {
+		if (weights.length < capacity) {
+			weights = new double[capacity];
+		}
+		return weights;
+	}
+
+	void setLength(int length) {
+		this.length = length;
+	}
+
+	private void checkDay(int day) {
+		if (day < 0 || day >= length) {
+			throw new IndexOutOfBoundsException("Day " + day + " outside trajectory of " + length + " days.");
+		}
+	}
+}
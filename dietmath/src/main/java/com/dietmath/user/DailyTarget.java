@@ -0,0 +1,10 @@
+package com.dietmath.user;
+
+public record DailyTarget(Kind kind, CalorieStrategy strategy, double calories) {
+
+	public enum Kind {
+		NO_GOAL,
+		GOAL_PASSED,
+		GOAL
+	}
+}
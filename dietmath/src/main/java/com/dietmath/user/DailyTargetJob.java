@@ -0,0 +1,198 @@
+package com.dietmath.user;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Service
+public class DailyTargetJob {
+	private static final Logger log = LoggerFactory.getLogger(DailyTargetJob.class);
+
+	private static final String USER_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM users";
+	private static final String CHUNK_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtextextended(?, 0))";
+	private static final String LATEST_SQL = """
+		SELECT DISTINCT ON (w.user_id) w.id, w.user_id, w.weight, w.goal_weight, w.goal_date, w.calorie_strategy
+		FROM user_weights w
+		WHERE w.user_id BETWEEN ? AND ?
+		  AND NOT EXISTS (SELECT 1 FROM daily_targets t WHERE t.user_id = w.user_id AND t.target_date = ?)
+		ORDER BY w.user_id, w.recorded_at DESC, w.id DESC
+		""";
+	private static final String FIXED_BASE_SQL = """
+		SELECT DISTINCT ON (w.user_id) w.id, w.user_id, w.weight, w.goal_weight, w.goal_date, w.calorie_strategy
+		FROM user_weights w
+		WHERE w.user_id BETWEEN ? AND ? AND w.calorie_strategy = 'FIXED'
+		  AND NOT EXISTS (SELECT 1 FROM daily_targets t WHERE t.user_id = w.user_id AND t.target_date = ?)
+		ORDER BY w.user_id, w.recorded_at ASC, w.id ASC
+		""";
+	private static final String UPSERT_SQL = """
+		INSERT INTO daily_targets (user_id, target_date, kind, calorie_strategy, calories, weight_id, base_weight_id,
+		    computed_at)
+		VALUES (?, ?, ?, ?, ?, ?, ?, NOW())
+		ON CONFLICT (user_id, target_date) DO UPDATE
+		SET kind = EXCLUDED.kind, calorie_strategy = EXCLUDED.calorie_strategy, calories = EXCLUDED.calories,
+		    weight_id = EXCLUDED.weight_id, base_weight_id = EXCLUDED.base_weight_id, computed_at = NOW()
+		""";
+	private static final String CLEANUP_SQL = "DELETE FROM daily_targets WHERE target_date < ?";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final CalorieEngine calorieEngine;
+	private final int usersPerChunk;
+	private final int threads;
+	private final int retentionDays;
+	private final Clock clock;
+	private final Timer runTimer;
+	private final Counter computedUsers;
+
+	@Autowired
+	public DailyTargetJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+		CalorieEngine calorieEngine, MeterRegistry meterRegistry,
+		@Value("${dietmath.daily-targets.users-per-chunk:500}") int usersPerChunk,
+		@Value("${dietmath.daily-targets.threads:4}") int threads,
+		@Value("${dietmath.daily-targets.retention-days:30}") int retentionDays) {
+		this(jdbcTemplate, transactionManager, calorieEngine, meterRegistry, usersPerChunk, threads, retentionDays,
+			Clock.systemDefaultZone());
+	}
+
+	DailyTargetJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+		CalorieEngine calorieEngine, MeterRegistry meterRegistry, int usersPerChunk, int threads, int retentionDays,
+		Clock clock) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.calorieEngine = calorieEngine;
+		this.usersPerChunk = Math.max(1, usersPerChunk);
+		this.threads = Math.max(1, threads);
+		this.retentionDays = Math.max(1, retentionDays);
+		this.clock = clock;
+		this.runTimer = Timer.builder("dietmath.daily.targets.run")
+			.description("Time to precompute the daily calorie targets of all users")
+			.register(meterRegistry);
+		this.computedUsers = Counter.builder("dietmath.daily.targets.users")
+			.description("Daily calorie targets written by the batch job")
+			.register(meterRegistry);
+	}
+
+	@Scheduled(cron = "${dietmath.daily-targets.cron:0 5 0 * * *}")
+	public void runNightly() {
+		run(LocalDate.now(clock));
+	}
+
+	public int run(LocalDate date) {
+		long started = System.nanoTime();
+		long[] range = jdbcTemplate.queryForObject(USER_RANGE_SQL,
+			(rs, rowNum) -> new long[] { rs.getLong(1), rs.getLong(2) });
+		if (range == null || range[1] == 0) {
+			log.info("Daily targets for {} skipped, no users.", date);
+			return 0;
+		}
+		List<Future<Integer>> chunks = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (long from = range[0]; from <= range[1]; from += usersPerChunk) {
+				long to = Math.min(range[1], from + usersPerChunk - 1);
+				long chunkFrom = from;
+				chunks.add(executor.submit(() -> computeChunk(date, chunkFrom, to)));
+			}
+			int users = 0;
+			int skipped = 0;
+			for (Future<Integer> chunk : chunks) {
+				int computed = chunk.get();
+				if (computed < 0) {
+					skipped++;
+				} else {
+					users += computed;
+				}
+			}
+			jdbcTemplate.update(CLEANUP_SQL, Date.valueOf(date.minusDays(retentionDays)));
+			long elapsedNanos = System.nanoTime() - started;
+			runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+			double usersPerSecond = users / Math.max(elapsedNanos / 1e9, 1e-3);
+			log.info("Computed daily targets for {} users on {} in {} chunks ({} held by another run) in {} ms "
+				+ "({} users/s).", users, date, chunks.size(), skipped, elapsedNanos / 1_000_000,
+				Math.round(usersPerSecond));
+			return users;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Daily target computation was interrupted.", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException("Daily target computation failed: " + ex.getCause().getMessage(),
+				ex.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	// Returns the number of targets written, or -1 if another run is working on the chunk.
+	private int computeChunk(LocalDate date, long fromUserId, long toUserId) {
+		Integer written = transactionTemplate.execute(status -> {
+			Boolean locked = jdbcTemplate.queryForObject(CHUNK_LOCK_SQL, Boolean.class,
+				"dietmath.daily_targets:" + date + ":" + fromUserId);
+			if (!Boolean.TRUE.equals(locked)) {
+				return -1;
+			}
+			Date day = Date.valueOf(date);
+			List<WeightRow> latest = jdbcTemplate.query(LATEST_SQL, (rs, rowNum) -> WeightRow.of(rs), fromUserId,
+				toUserId, day);
+			if (latest.isEmpty()) {
+				return 0;
+			}
+			Map<Long, WeightRow> fixedBases = new HashMap<>();
+			jdbcTemplate.query(FIXED_BASE_SQL, (rs, rowNum) -> WeightRow.of(rs), fromUserId, toUserId, day)
+				.forEach(row -> fixedBases.put(row.userId(), row));
+			List<Object[]> targets = new ArrayList<>(latest.size());
+			for (WeightRow row : latest) {
+				WeightRow fixedBase = fixedBases.get(row.userId());
+				WeightRow base = row.strategy() == CalorieStrategy.FIXED && fixedBase != null ? fixedBase : row;
+				DailyTarget target = calorieEngine.dailyTarget(row.strategy(), base.weight(), base.goalWeight(),
+					base.goalDate(), date);
+				targets.add(new Object[] { row.userId(), day, target.kind().name(), target.strategy().name(),
+					BigDecimal.valueOf(target.calories()).setScale(2, RoundingMode.HALF_UP), row.id(), base.id() });
+			}
+			jdbcTemplate.batchUpdate(UPSERT_SQL, targets);
+			return targets.size();
+		});
+		if (written != null && written > 0) {
+			computedUsers.increment(written);
+		}
+		return written == null ? 0 : written;
+	}
+
+	private record WeightRow(long id, long userId, double weight, Double goalWeight, LocalDate goalDate,
+		CalorieStrategy strategy) {
+
+		private static WeightRow of(ResultSet rs) throws SQLException {
+			BigDecimal goalWeight = rs.getBigDecimal("goal_weight");
+			Date goalDate = rs.getDate("goal_date");
+			return new WeightRow(rs.getLong("id"), rs.getLong("user_id"), rs.getDouble("weight"),
+				goalWeight != null ? goalWeight.doubleValue() : null, goalDate != null ? goalDate.toLocalDate() : null,
+				CalorieStrategy.valueOf(rs.getString("calorie_strategy")));
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.dietmath.user;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DailyTargetRunner implements ApplicationRunner {
+	private static final String COMPUTE_OPTION = "compute-daily-targets";
+
+	private final DailyTargetJob job;
+
+	public DailyTargetRunner(DailyTargetJob job) {
+		this.job = job;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!args.containsOption(COMPUTE_OPTION)) {
+			return;
+		}
+		List<String> values = args.getOptionValues(COMPUTE_OPTION);
+		job.run(values.isEmpty() || values.get(0).isBlank() ? LocalDate.now() : LocalDate.parse(values.get(0)));
+	}
+}
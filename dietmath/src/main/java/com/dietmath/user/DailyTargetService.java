@@ -0,0 +1,32 @@
+package com.dietmath.user;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public class DailyTargetService {
+	private final CalorieEngine calorieEngine;
+
+	public DailyTargetService(CalorieEngine calorieEngine) {
+		this.calorieEngine = calorieEngine;
+	}
+
+	// The snapshot holds exactly the weights DailyTargetJob computes from, so reading its stored row would cost a
+	// round trip for the same number.
+	public DailyTarget target(UserProfileSnapshot profile, LocalDate date) {
+		UserWeight latest = profile.latestWeight();
+		if (latest == null) {
+			return null;
+		}
+		UserWeight base = calorieBase(latest, profile.fixedBaseWeight());
+		return calorieEngine.dailyTarget(latest.getCalorieStrategy(), base.getWeight().doubleValue(),
+			base.getGoalWeight() != null ? base.getGoalWeight().doubleValue() : null, base.getGoalDate(), date);
+	}
+
+	public static UserWeight calorieBase(UserWeight latestWeight, UserWeight fixedBaseWeight) {
+		return latestWeight.getCalorieStrategy() == CalorieStrategy.FIXED && fixedBaseWeight != null
+			? fixedBaseWeight
+			: latestWeight;
+	}
+}
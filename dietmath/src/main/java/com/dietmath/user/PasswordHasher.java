@@ -0,0 +1,152 @@
+package com.dietmath.user;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Component
+public class PasswordHasher implements DisposableBean, MeterBinder {
+	private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+	private final BCryptPasswordEncoder encoder;
+	private final int strength;
+	private final int queueCapacity;
+	private final long timeoutMillis;
+	private final ThreadPoolExecutor executor;
+	private final LongAdder hashes = new LongAdder();
+	private final LongAdder hashNanos = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private volatile Timer encodeTimer;
+	private volatile Timer matchesTimer;
+
+	public PasswordHasher(@Value("${dietmath.password.bcrypt-strength:10}") int strength,
+		@Value("${dietmath.password.hash-threads:0}") int threads,
+		@Value("${dietmath.password.hash-queue-capacity:32}") int queueCapacity,
+		@Value("${dietmath.password.hash-timeout-ms:5000}") long timeoutMillis) {
+		this.encoder = new BCryptPasswordEncoder(strength);
+		this.strength = strength;
+		this.queueCapacity = Math.max(1, queueCapacity);
+		this.timeoutMillis = timeoutMillis;
+		int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(this.queueCapacity), runnable -> {
+				Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> encoder.encode(rawPassword), encodeTimer);
+	}
+
+	public boolean matches(CharSequence rawPassword, String passwordHash) {
+		return submit(() -> encoder.matches(rawPassword, passwordHash), matchesTimer);
+	}
+
+	public boolean needsRehash(String passwordHash) {
+		if (passwordHash == null) {
+			return false;
+		}
+		Matcher matcher = BCRYPT_COST.matcher(passwordHash);
+		return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+	}
+
+	public Stats stats() {
+		long count = hashes.sum();
+		double averageMillis = count == 0 ? 0 : hashNanos.sum() / 1_000_000.0 / count;
+		return new Stats(executor.getQueue().size(), queueCapacity, executor.getActiveCount(),
+			executor.getMaximumPoolSize(), strength, count, rejected.sum(), averageMillis);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		encodeTimer = hashTimer(registry, "encode");
+		matchesTimer = hashTimer(registry, "matches");
+		Gauge.builder("dietmath.password.queue.depth", executor, pool -> pool.getQueue().size())
+			.description("Password hashing tasks waiting for a worker")
+			.register(registry);
+		Gauge.builder("dietmath.password.active", executor, ThreadPoolExecutor::getActiveCount)
+			.description("Password hashing workers currently busy")
+			.register(registry);
+		FunctionCounter.builder("dietmath.password.rejected", rejected, LongAdder::sum)
+			.description("Password hashing requests rejected because the pool was saturated")
+			.register(registry);
+	}
+
+	private static Timer hashTimer(MeterRegistry registry, String operation) {
+		return Timer.builder("dietmath.password.hash")
+			.description("BCrypt hashing time on the worker pool")
+			.tag("operation", operation)
+			.register(registry);
+	}
+
+	private <T> T submit(Callable<T> work, Timer timer) {
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				long started = System.nanoTime();
+				try {
+					return work.call();
+				} finally {
+					long elapsed = System.nanoTime() - started;
+					hashNanos.add(elapsed);
+					hashes.increment();
+					if (timer != null) {
+						timer.record(elapsed, TimeUnit.NANOSECONDS);
+					}
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			rejected.increment();
+			throw new PasswordHashingBusyException("Password hashing queue is full.", ex);
+		}
+		try {
+			return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException ex) {
+			future.cancel(true);
+			rejected.increment();
+			throw new PasswordHashingBusyException("Password hashing timed out.", ex);
+		} catch (InterruptedException ex) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingBusyException("Password hashing was interrupted.", ex);
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			throw new IllegalStateException("Password hashing failed.", cause);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	public record Stats(int queueDepth, int queueCapacity, int activeThreads, int threads, int strength,
+		long hashes, long rejected, double averageMillis) {
+	}
+}
@@ -0,0 +1,11 @@
+package com.dietmath.user;
+
+public class PasswordHashingBusyException extends RuntimeException {
+	public PasswordHashingBusyException(String message) {
+		super(message);
+	}
+
+	public PasswordHashingBusyException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -69,6 +69,10 @@ public class User {
 		return passwordHash;
 	}
 
+	public void setPasswordHash(String passwordHash) {
+		this.passwordHash = passwordHash;
+	}
+
 	public LocalDate getBirthDate() {
 		return birthDate;
 	}
@@ -0,0 +1,112 @@
+package com.dietmath.user;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Component
+public class UserProfileCache implements MeterBinder {
+	private final int maxEntries;
+	private final Map<Long, UserProfileSnapshot> entries;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	// Bumped by every put and evict, so a load that started before one of them does not cache what it read.
+	private long generation;
+
+	public UserProfileCache(@Value("${dietmath.profile-cache.max-entries:1000}") int maxEntries) {
+		this.maxEntries = Math.max(1, maxEntries);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, UserProfileSnapshot> eldest) {
+				if (size() > UserProfileCache.this.maxEntries) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public UserProfileSnapshot get(Long userId) {
+		UserProfileSnapshot snapshot;
+		synchronized (entries) {
+			snapshot = entries.get(userId);
+		}
+		if (snapshot == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+		return snapshot;
+	}
+
+	public UserProfileSnapshot peek(Long userId) {
+		synchronized (entries) {
+			return entries.get(userId);
+		}
+	}
+
+	public long generation() {
+		synchronized (entries) {
+			return generation;
+		}
+	}
+
+	public void put(UserProfileSnapshot snapshot) {
+		synchronized (entries) {
+			generation++;
+			entries.put(snapshot.userId(), snapshot);
+		}
+	}
+
+	public void putIfUnchanged(UserProfileSnapshot snapshot, long expectedGeneration) {
+		synchronized (entries) {
+			if (generation == expectedGeneration) {
+				generation++;
+				entries.put(snapshot.userId(), snapshot);
+			}
+		}
+	}
+
+	public void evict(Long userId) {
+		synchronized (entries) {
+			generation++;
+			entries.remove(userId);
+		}
+	}
+
+	public Stats stats() {
+		int size;
+		synchronized (entries) {
+			size = entries.size();
+		}
+		return new Stats(size, maxEntries, hits.sum(), misses.sum(), evictions.sum());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("dietmath.profile.cache.size", this, cache -> cache.stats().size())
+			.description("Cached user profile snapshots")
+			.register(registry);
+		FunctionCounter.builder("dietmath.profile.cache.requests", hits, LongAdder::sum)
+			.tag("result", "hit")
+			.register(registry);
+		FunctionCounter.builder("dietmath.profile.cache.requests", misses, LongAdder::sum)
+			.tag("result", "miss")
+			.register(registry);
+		FunctionCounter.builder("dietmath.profile.cache.evictions", evictions, LongAdder::sum)
+			.register(registry);
+	}
+
+	public record Stats(int size, int maxEntries, long hits, long misses, long evictions) {
+	}
+}
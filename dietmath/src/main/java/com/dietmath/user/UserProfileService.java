@@ -0,0 +1,132 @@
+package com.dietmath.user;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dietmath.sync.ContentVersion;
+import com.dietmath.sync.ContentVersionService;
+
+@Service
+public class UserProfileService {
+	private final UserRepository userRepository;
+	private final UserWeightRepository userWeightRepository;
+	private final WeightTrendService weightTrendService;
+	private final UserProfileCache cache;
+	private final ContentVersionService contentVersionService;
+	private final TransactionTemplate primaryReads;
+	private final TransactionTemplate writes;
+
+	public UserProfileService(UserRepository userRepository, UserWeightRepository userWeightRepository,
+		WeightTrendService weightTrendService, UserProfileCache cache, ContentVersionService contentVersionService,
+		PlatformTransactionManager transactionManager) {
+		this.userRepository = userRepository;
+		this.userWeightRepository = userWeightRepository;
+		this.weightTrendService = weightTrendService;
+		this.cache = cache;
+		this.contentVersionService = contentVersionService;
+		// Read-write, so cache loads stay on the primary and never keep a lagging replica's snapshot.
+		this.primaryReads = new TransactionTemplate(transactionManager);
+		this.writes = new TransactionTemplate(transactionManager);
+	}
+
+	public UserProfileSnapshot load(Long userId) {
+		return load(userId, contentVersionService.current(userId));
+	}
+
+	// Another node may have written since this one cached the user, so the snapshot must be at least as new as the
+	// version the caller is about to put in its ETag.
+	public UserProfileSnapshot load(Long userId, ContentVersion current) {
+		if (current == null) {
+			cache.evict(userId);
+			return null;
+		}
+		UserProfileSnapshot cached = cache.get(userId);
+		if (cached != null && cached.isCurrent(current)) {
+			return cached;
+		}
+		long generation = cache.generation();
+		UserProfileSnapshot loaded = reloadFromPrimary(userId);
+		if (loaded != null) {
+			cache.putIfUnchanged(loaded, generation);
+		}
+		return loaded;
+	}
+
+	public User findUser(Long userId) {
+		return primaryReads.execute(status -> userRepository.findById(userId).orElse(null));
+	}
+
+	public UserProfileSnapshot saveUser(User user) {
+		User saved;
+		try {
+			saved = userRepository.save(user);
+		} catch (RuntimeException ex) {
+			cache.evict(user.getId());
+			throw ex;
+		}
+		UserProfileSnapshot current = cache.peek(saved.getId());
+		UserProfileSnapshot updated = current != null
+			? current.withUser(saved)
+			: reloadFromPrimary(saved.getId());
+		if (updated != null) {
+			cache.put(updated);
+		}
+		return updated;
+	}
+
+	public UserProfileSnapshot addWeight(UserWeight weight) {
+		UserWeight[] saved = new UserWeight[1];
+		// The weight and its trend step commit together; the flush makes the row visible to a trend replay.
+		WeightTrend trend = writes.execute(status -> {
+			saved[0] = userWeightRepository.saveAndFlush(weight);
+			return weightTrendService.record(saved[0]);
+		});
+		UserProfileSnapshot current = cache.peek(saved[0].getUserId());
+		UserProfileSnapshot updated = current != null
+			? current.withWeight(saved[0], trend)
+			: reloadFromPrimary(saved[0].getUserId());
+		if (updated != null) {
+			cache.put(updated);
+		}
+		return updated;
+	}
+
+	public void evict(Long userId) {
+		afterCommit(() -> cache.evict(userId));
+	}
+
+	private UserProfileSnapshot reloadFromPrimary(Long userId) {
+		return primaryReads.execute(status -> loadFromDatabase(userId));
+	}
+
+	private UserProfileSnapshot loadFromDatabase(Long userId) {
+		// Read first, so the rows below are at least as new as the version stored with them.
+		ContentVersion version = contentVersionService.current(userId);
+		User user = userRepository.findById(userId).orElse(null);
+		if (user == null || version == null) {
+			return null;
+		}
+		UserWeight latestWeight = userWeightRepository.findTopByUserIdOrderByRecordedAtDesc(userId).orElse(null);
+		UserWeight fixedBaseWeight = userWeightRepository
+			.findTopByUserIdAndCalorieStrategyOrderByRecordedAtAsc(userId, CalorieStrategy.FIXED)
+			.orElse(null);
+		WeightTrend trend = weightTrendService.find(userId).orElse(null);
+		return new UserProfileSnapshot(user, latestWeight, fixedBaseWeight, trend, version);
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
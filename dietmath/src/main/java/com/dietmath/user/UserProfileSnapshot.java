@@ -0,0 +1,29 @@
+package com.dietmath.user;
+
+import com.dietmath.sync.ContentVersion;
+
+public record UserProfileSnapshot(User user, UserWeight latestWeight, UserWeight fixedBaseWeight,
+	WeightTrend weightTrend, ContentVersion version) {
+
+	public Long userId() {
+		return user.getId();
+	}
+
+	// Snapshots changed in place by a local write have no version and are reloaded on the next versioned read.
+	boolean isCurrent(ContentVersion current) {
+		return version != null && version.dataVersion() >= current.dataVersion()
+			&& !version.updatedAt().isBefore(current.updatedAt());
+	}
+
+	UserProfileSnapshot withUser(User updated) {
+		return new UserProfileSnapshot(updated, latestWeight, fixedBaseWeight, weightTrend, null);
+	}
+
+	UserProfileSnapshot withWeight(UserWeight added, WeightTrend trend) {
+		UserWeight fixedBase = fixedBaseWeight;
+		if (fixedBase == null && added.getCalorieStrategy() == CalorieStrategy.FIXED) {
+			fixedBase = added;
+		}
+		return new UserProfileSnapshot(user, added, fixedBase, trend, null);
+	}
+}
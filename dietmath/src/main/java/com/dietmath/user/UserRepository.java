@@ -3,8 +3,20 @@ package com.dietmath.user;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+	// Read-write so login always sees freshly registered users on the primary, never a lagging replica.
+	@Transactional
 	Optional<User> findByUsername(String username);
 	boolean existsByUsername(String username);
+
+	// Only the hash, and only if it is still the one that was verified, so profile edits made meanwhile survive.
+	@Transactional
+	@Modifying
+	@Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+	int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -1,8 +1,6 @@
 package com.dietmath.user;
 
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.dietmath.user.dto.RegisterRequest;
@@ -11,11 +9,14 @@ import com.dietmath.user.dto.RegisterResult;
 @Service
 public class UserService {
 	private final UserRepository userRepository;
-	private final PasswordEncoder passwordEncoder;
+	private final PasswordHasher passwordHasher;
+	private final UserProfileService userProfileService;
 
-	public UserService(UserRepository userRepository) {
+	public UserService(UserRepository userRepository, PasswordHasher passwordHasher,
+		UserProfileService userProfileService) {
 		this.userRepository = userRepository;
-		this.passwordEncoder = new BCryptPasswordEncoder();
+		this.passwordHasher = passwordHasher;
+		this.userProfileService = userProfileService;
 	}
 
 	public RegisterResult register(RegisterRequest request) {
@@ -30,7 +31,7 @@ public class UserService {
 		if (password == null || password.isBlank()) {
 			return new RegisterResult(false, "Password is required.");
 		}
-		User user = new User(username, passwordEncoder.encode(password));
+		User user = new User(username, passwordHasher.encode(password));
 		try {
 			userRepository.save(user);
 		} catch (DataIntegrityViolationException ex) {
@@ -44,9 +45,22 @@ public class UserService {
 		if (normalized.isEmpty() || password == null || password.isBlank()) {
 			return null;
 		}
-		return userRepository.findByUsername(normalized)
-			.filter(user -> passwordEncoder.matches(password, user.getPasswordHash()))
-			.orElse(null);
+		User user = userRepository.findByUsername(normalized).orElse(null);
+		if (user == null || !passwordHasher.matches(password, user.getPasswordHash())) {
+			return null;
+		}
+		if (passwordHasher.needsRehash(user.getPasswordHash())) {
+			try {
+				String upgraded = passwordHasher.encode(password);
+				if (userRepository.updatePasswordHash(user.getId(), user.getPasswordHash(), upgraded) > 0) {
+					user.setPasswordHash(upgraded);
+					userProfileService.evict(user.getId());
+				}
+			} catch (PasswordHashingBusyException ex) {
+				// Keep the old hash; the next successful login retries the upgrade.
+			}
+		}
+		return user;
 	}
 
 	public User findById(Long userId) {
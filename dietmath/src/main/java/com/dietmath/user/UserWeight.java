@@ -12,13 +12,15 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "user_weights")
 public class UserWeight {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_weights_id_seq")
+	@SequenceGenerator(name = "user_weights_id_seq", sequenceName = "user_weights_id_seq", allocationSize = 50)
 	private Long id;
 
 	@Column(name = "user_id", nullable = false)
@@ -59,6 +61,10 @@ public class UserWeight {
 		}
 	}
 
+	public Long getId() {
+		return id;
+	}
+
 	public Long getUserId() {
 		return userId;
 	}
@@ -0,0 +1,35 @@
+package com.dietmath.user;
+
+import java.time.Instant;
+
+public record WeightTrend(double trendKg, double dailyRateKg, int samples, long lastWeightId, Instant lastRecordedAt) {
+	public static final double DAILY_SMOOTHING = 0.1;
+	private static final double SECONDS_PER_DAY = 86_400.0;
+
+	public record Reading(long weightId, double weightKg, Instant recordedAt) {
+	}
+
+	public static WeightTrend first(long weightId, double weightKg, Instant recordedAt) {
+		return new WeightTrend(weightKg, 0, 1, weightId, recordedAt);
+	}
+
+	public WeightTrend next(long weightId, double weightKg, Instant recordedAt) {
+		double days = Math.max(0, recordedAt.getEpochSecond() - lastRecordedAt.getEpochSecond()) / SECONDS_PER_DAY;
+		double keep = Math.pow(1 - DAILY_SMOOTHING, days);
+		double trend = weightKg + (trendKg - weightKg) * keep;
+		double rate = dailyRateKg;
+		if (days > 0) {
+			double slope = (trend - trendKg) / days;
+			rate = slope + (dailyRateKg - slope) * keep;
+		}
+		return new WeightTrend(trend, rate, samples + 1, weightId, recordedAt);
+	}
+
+	public boolean accepts(Instant recordedAt) {
+		return !recordedAt.isBefore(lastRecordedAt);
+	}
+
+	public double weeklyRateKg() {
+		return dailyRateKg * 7;
+	}
+}
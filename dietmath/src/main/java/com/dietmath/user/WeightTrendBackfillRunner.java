@@ -0,0 +1,23 @@
+package com.dietmath.user;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WeightTrendBackfillRunner implements ApplicationRunner {
+	private static final String BACKFILL_OPTION = "backfill-weight-trends";
+
+	private final WeightTrendService weightTrendService;
+
+	public WeightTrendBackfillRunner(WeightTrendService weightTrendService) {
+		this.weightTrendService = weightTrendService;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (args.containsOption(BACKFILL_OPTION)) {
+			weightTrendService.backfill();
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package com.dietmath.user;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class WeightTrendService {
+	private static final Logger log = LoggerFactory.getLogger(WeightTrendService.class);
+
+	private static final int BACKFILL_FETCH_SIZE = 1000;
+	private static final int BACKFILL_BATCH_SIZE = 500;
+
+	private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtextextended(?, 0))";
+	private static final String FIND_SQL = """
+		SELECT trend_weight, daily_rate, samples, last_weight_id, last_recorded_at
+		FROM weight_trends
+		WHERE user_id = ?
+		""";
+	private static final String HISTORY_SQL = """
+		SELECT id, weight, recorded_at FROM user_weights
+		WHERE user_id = ?
+		ORDER BY recorded_at, id
+		""";
+	private static final String ALL_HISTORY_SQL = """
+		SELECT user_id, id, weight, recorded_at FROM user_weights
+		ORDER BY user_id, recorded_at, id
+		""";
+	private static final String BACKFILL_LOCK_SQL = "LOCK TABLE user_weights IN SHARE MODE";
+	private static final String UPSERT_SQL = """
+		INSERT INTO weight_trends (user_id, trend_weight, daily_rate, samples, last_weight_id, last_recorded_at)
+		VALUES (?, ?, ?, ?, ?, ?)
+		ON CONFLICT (user_id)
+		DO UPDATE SET trend_weight = EXCLUDED.trend_weight, daily_rate = EXCLUDED.daily_rate,
+		    samples = EXCLUDED.samples, last_weight_id = EXCLUDED.last_weight_id,
+		    last_recorded_at = EXCLUDED.last_recorded_at, updated_at = NOW()
+		""";
+	private static final String DELETE_STALE_SQL = """
+		DELETE FROM weight_trends t
+		WHERE NOT EXISTS (SELECT 1 FROM user_weights w WHERE w.user_id = t.user_id)
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final JdbcTemplate streamingJdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	public WeightTrendService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		// PostgreSQL only streams a result set with a fetch size inside a transaction; otherwise it buffers it all.
+		this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		this.streamingJdbcTemplate.setFetchSize(BACKFILL_FETCH_SIZE);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Transactional(readOnly = true)
+	public Optional<WeightTrend> find(Long userId) {
+		return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> read(rs), userId).stream().findFirst();
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public WeightTrend record(UserWeight weight) {
+		return record(weight.getUserId(), List.of(new WeightTrend.Reading(weight.getId(),
+			weight.getWeight().doubleValue(), weight.getRecordedAt())));
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public WeightTrend record(Long userId, List<WeightTrend.Reading> readings) {
+		if (readings.isEmpty()) {
+			return find(userId).orElse(null);
+		}
+		// Serialises the read-modify-write against another weight for the same user committing in between.
+		jdbcTemplate.query(LOCK_SQL, (RowCallbackHandler) rs -> {
+		}, "dietmath.weight_trend:" + userId);
+		List<WeightTrend.Reading> ordered = new ArrayList<>(readings);
+		ordered.sort(Comparator.comparing(WeightTrend.Reading::recordedAt)
+			.thenComparingLong(WeightTrend.Reading::weightId));
+		WeightTrend trend = jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> read(rs), userId).stream()
+			.findFirst()
+			.orElse(null);
+		if (trend == null || !trend.accepts(ordered.get(0).recordedAt())) {
+			return replay(userId);
+		}
+		for (WeightTrend.Reading reading : ordered) {
+			trend = trend.next(reading.weightId(), reading.weightKg(), reading.recordedAt());
+		}
+		upsert(userId, trend);
+		return trend;
+	}
+
+	private WeightTrend replay(Long userId) {
+		WeightTrend[] trend = new WeightTrend[1];
+		jdbcTemplate.query(HISTORY_SQL, (RowCallbackHandler) rs -> trend[0] = advance(trend[0], rs.getLong("id"),
+			rs.getDouble("weight"), rs.getTimestamp("recorded_at").toInstant()), userId);
+		if (trend[0] != null) {
+			upsert(userId, trend[0]);
+		}
+		return trend[0];
+	}
+
+	public int backfill() {
+		long started = System.nanoTime();
+		Integer users = transactionTemplate.execute(status -> {
+			jdbcTemplate.execute(BACKFILL_LOCK_SQL);
+			Backfill backfill = new Backfill();
+			streamingJdbcTemplate.query(ALL_HISTORY_SQL, (RowCallbackHandler) rs -> backfill.add(rs.getLong("user_id"),
+				rs.getLong("id"), rs.getDouble("weight"), rs.getTimestamp("recorded_at").toInstant()));
+			backfill.finish();
+			jdbcTemplate.update(DELETE_STALE_SQL);
+			return backfill.users;
+		});
+		int count = users != null ? users : 0;
+		log.info("Backfilled weight trends for {} users in {} ms.", count, (System.nanoTime() - started) / 1_000_000);
+		return count;
+	}
+
+	private void upsert(Long userId, WeightTrend trend) {
+		jdbcTemplate.update(UPSERT_SQL, row(userId, trend));
+	}
+
+	private static Object[] row(long userId, WeightTrend trend) {
+		return new Object[] { userId, trend.trendKg(), trend.dailyRateKg(), trend.samples(), trend.lastWeightId(),
+			Timestamp.from(trend.lastRecordedAt()) };
+	}
+
+	private static WeightTrend advance(WeightTrend trend, long weightId, double weightKg, Instant recordedAt) {
+		return trend == null ? WeightTrend.first(weightId, weightKg, recordedAt)
+			: trend.next(weightId, weightKg, recordedAt);
+	}
+
+	private static WeightTrend read(ResultSet rs) throws SQLException {
+		return new WeightTrend(rs.getDouble("trend_weight"), rs.getDouble("daily_rate"), rs.getInt("samples"),
+			rs.getLong("last_weight_id"), rs.getTimestamp("last_recorded_at").toInstant());
+	}
+
+	// Folds the user-ordered stream, flushing finished users in batches so memory stays flat.
+	private final class Backfill {
+		private final List<Object[]> pending = new ArrayList<>(BACKFILL_BATCH_SIZE);
+		private long userId;
+		private WeightTrend trend;
+		private int users;
+
+		private void add(long rowUserId, long weightId, double weightKg, Instant recordedAt) {
+			if (trend != null && rowUserId != userId) {
+				finishUser();
+			}
+			userId = rowUserId;
+			trend = advance(trend, weightId, weightKg, recordedAt);
+		}
+
+		private void finishUser() {
+			pending.add(row(userId, trend));
+			trend = null;
+			users++;
+			if (pending.size() >= BACKFILL_BATCH_SIZE) {
+				flush();
+			}
+		}
+
+		private void finish() {
+			if (trend != null) {
+				finishUser();
+			}
+			flush();
+		}
+
+		private void flush() {
+			if (!pending.isEmpty()) {
+				jdbcTemplate.batchUpdate(UPSERT_SQL, pending);
+				pending.clear();
+			}
+		}
+	}
+}
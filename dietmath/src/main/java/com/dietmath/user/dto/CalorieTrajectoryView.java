@@ -0,0 +1,9 @@
+package com.dietmath.user.dto;
+
+import java.time.LocalDate;
+
+import com.dietmath.user.CalorieStrategy;
+
+public record CalorieTrajectoryView(LocalDate startDate, CalorieStrategy strategy, double[] targets,
+	double[] weights) {
+}
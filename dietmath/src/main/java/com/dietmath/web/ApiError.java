@@ -0,0 +1,4 @@
+package com.dietmath.web;
+
+public record ApiError(String error) {
+}
@@ -0,0 +1,124 @@
+package com.dietmath.web;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.bulk.BulkBatch;
+import com.dietmath.bulk.BulkIngestService;
+import com.dietmath.bulk.dto.BulkDiaryItem;
+import com.dietmath.bulk.dto.BulkLine;
+import com.dietmath.bulk.dto.BulkRequest;
+import com.dietmath.bulk.dto.BulkWeightItem;
+import com.dietmath.ratelimit.RateLimitPolicy;
+import com.dietmath.ratelimit.RateLimited;
+
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+@RestController
+@RequestMapping(value = "/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+public class BulkController {
+	private static final String NDJSON = "application/x-ndjson";
+
+	private final BulkIngestService bulkIngestService;
+	private final JsonMapper jsonMapper;
+	private final int maxItems;
+	private final UserAuthentication authentication;
+
+	public BulkController(BulkIngestService bulkIngestService, JsonMapper jsonMapper,
+		UserAuthentication authentication, @Value("${dietmath.bulk.max-items:20000}") int maxItems) {
+		this.bulkIngestService = bulkIngestService;
+		this.jsonMapper = jsonMapper;
+		this.maxItems = maxItems;
+		this.authentication = authentication;
+	}
+
+	@RateLimited(RateLimitPolicy.BULK)
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> json(@RequestBody BulkRequest request, HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		List<BulkWeightItem> weights = request.weights() != null ? request.weights() : List.of();
+		List<BulkDiaryItem> diary = request.diary() != null ? request.diary() : List.of();
+		if (weights.size() + diary.size() > maxItems) {
+			return tooManyItems();
+		}
+		BulkBatch batch = new BulkBatch();
+		for (int i = 0; i < weights.size(); i++) {
+			batch.addWeight(i, weights.get(i));
+		}
+		for (int i = 0; i < diary.size(); i++) {
+			batch.addDiary(i, diary.get(i));
+		}
+		return ResponseEntity.ok(bulkIngestService.ingest(userId, batch));
+	}
+
+	@RateLimited(RateLimitPolicy.BULK)
+	@PostMapping(consumes = NDJSON)
+	public ResponseEntity<?> ndjson(InputStream body, HttpServletRequest servletRequest) throws IOException {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		BulkBatch batch = new BulkBatch();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+			String line;
+			int index = -1;
+			while ((line = reader.readLine()) != null) {
+				index++;
+				if (line.isBlank()) {
+					continue;
+				}
+				if (batch.size() >= maxItems) {
+					return tooManyItems();
+				}
+				addLine(batch, index, line);
+			}
+		}
+		return ResponseEntity.ok(bulkIngestService.ingest(userId, batch));
+	}
+
+	private void addLine(BulkBatch batch, int index, String line) {
+		BulkLine parsed;
+		try {
+			parsed = jsonMapper.readValue(line, BulkLine.class);
+		} catch (JacksonException ex) {
+			batch.reject("unknown", index, "Invalid JSON.");
+			return;
+		}
+		if (BulkBatch.WEIGHT.equals(parsed.type())) {
+			batch.addWeight(index, parsed.toWeightItem());
+		} else if (BulkBatch.DIARY.equals(parsed.type())) {
+			batch.addDiary(index, parsed.toDiaryItem());
+		} else {
+			batch.reject(parsed.type() != null ? parsed.type() : "unknown", index,
+				"Type must be \"" + BulkBatch.WEIGHT + "\" or \"" + BulkBatch.DIARY + "\".");
+		}
+	}
+
+	private ResponseEntity<?> tooManyItems() {
+		return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE)
+			.body(new ApiError("At most " + maxItems + " items per request."));
+	}
+
+	private static ResponseEntity<?> unauthorized() {
+		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiError("Login required."));
+	}
+}
@@ -0,0 +1,41 @@
+package com.dietmath.web;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.dietmath.sync.ContentVersion;
+
+final class ConditionalRequests {
+	private static final String CACHE_CONTROL = "private, no-cache";
+
+	private ConditionalRequests() {
+	}
+
+	static boolean notModified(ServletWebRequest request, ContentVersion version, LocalDate today, Object... variant) {
+		Instant lastModified = version.lastModified();
+		StringBuilder etag = new StringBuilder("\"")
+			.append(Long.toHexString(version.userId())).append('-')
+			.append(Long.toHexString(version.updatedAt().toEpochMilli())).append('-')
+			.append(Long.toHexString(version.dataVersion()));
+		if (today != null) {
+			etag.append('-').append(today);
+			Instant startOfDay = today.atStartOfDay(ZoneId.systemDefault()).toInstant();
+			if (startOfDay.isAfter(lastModified)) {
+				lastModified = startOfDay;
+			}
+		}
+		if (variant.length > 0) {
+			etag.append('-').append(Integer.toHexString(Arrays.deepHashCode(variant)));
+		}
+		etag.append('"');
+		if (request.getResponse() != null) {
+			request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+		}
+		return request.checkNotModified(etag.toString(), lastModified.toEpochMilli());
+	}
+}
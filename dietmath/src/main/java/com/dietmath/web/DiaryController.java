@@ -0,0 +1,194 @@
+package com.dietmath.web;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.diary.DiaryService;
+import com.dietmath.diary.FoodUsageService;
+import com.dietmath.diary.MacroPeriod;
+import com.dietmath.diary.MacroTotalsService;
+import com.dietmath.diary.dto.DiaryEntryRequest;
+import com.dietmath.food.BuiltinFoodCatalog;
+import com.dietmath.sync.ContentVersion;
+import com.dietmath.sync.ContentVersionService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping(value = "/diary", produces = MediaType.APPLICATION_JSON_VALUE)
+public class DiaryController {
+	private static final long MAX_SUMMARY_DAYS = 366;
+	private static final int MAX_QUICK_ADD_FOODS = 20;
+
+	private final DiaryService diaryService;
+	private final ContentVersionService contentVersionService;
+	private final FoodUsageService foodUsageService;
+	private final MacroTotalsService macroTotalsService;
+	private final BuiltinFoodCatalog foodCatalog;
+	private final UserAuthentication authentication;
+
+	public DiaryController(DiaryService diaryService, ContentVersionService contentVersionService,
+		FoodUsageService foodUsageService, MacroTotalsService macroTotalsService, BuiltinFoodCatalog foodCatalog,
+		UserAuthentication authentication) {
+		this.diaryService = diaryService;
+		this.contentVersionService = contentVersionService;
+		this.foodUsageService = foodUsageService;
+		this.macroTotalsService = macroTotalsService;
+		this.foodCatalog = foodCatalog;
+		this.authentication = authentication;
+	}
+
+	@GetMapping
+	public ResponseEntity<?> day(
+		@RequestParam(name = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+		ServletWebRequest webRequest) {
+		Long userId = authentication.userId(webRequest.getRequest());
+		if (userId == null) {
+			return unauthorized();
+		}
+		LocalDate day = date != null ? date : LocalDate.now();
+		if (notModified(userId, webRequest, day, foodCatalog.version())) {
+			return null;
+		}
+		return ResponseEntity.ok(diaryService.day(userId, day));
+	}
+
+	@GetMapping("/summary")
+	public ResponseEntity<?> summary(
+		@RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+		@RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+		ServletWebRequest webRequest) {
+		Long userId = authentication.userId(webRequest.getRequest());
+		if (userId == null) {
+			return unauthorized();
+		}
+		if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_SUMMARY_DAYS) {
+			return ResponseEntity.badRequest()
+				.body(new ApiError("Range must be between 1 and " + MAX_SUMMARY_DAYS + " days."));
+		}
+		if (notModified(userId, webRequest, from, to)) {
+			return null;
+		}
+		return ResponseEntity.ok(diaryService.totals(userId, from, to));
+	}
+
+	@GetMapping("/macros")
+	public ResponseEntity<?> macros(
+		@RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+		@RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+		@RequestParam(name = "period", defaultValue = "day") String period,
+		ServletWebRequest webRequest) {
+		Long userId = authentication.userId(webRequest.getRequest());
+		if (userId == null) {
+			return unauthorized();
+		}
+		if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_SUMMARY_DAYS) {
+			return ResponseEntity.badRequest()
+				.body(new ApiError("Range must be between 1 and " + MAX_SUMMARY_DAYS + " days."));
+		}
+		MacroPeriod macroPeriod;
+		try {
+			macroPeriod = MacroPeriod.valueOf(period.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().body(new ApiError("Period must be day or week."));
+		}
+		if (notModified(userId, webRequest, from, to, macroPeriod, foodCatalog.version())) {
+			return null;
+		}
+		return ResponseEntity.ok(macroTotalsService.totals(userId, from, to, macroPeriod));
+	}
+
+	@GetMapping("/quick-add")
+	public ResponseEntity<?> quickAdd(@RequestParam(name = "limit", defaultValue = "10") int limit,
+		HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		return ResponseEntity.ok(foodUsageService.quickAdd(userId, Math.clamp(limit, 1, MAX_QUICK_ADD_FOODS)));
+	}
+
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> add(@Valid @RequestBody DiaryEntryRequest request, BindingResult bindingResult,
+		HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		if (bindingResult.hasErrors()) {
+			return validationError(bindingResult);
+		}
+		try {
+			return ResponseEntity.status(HttpStatus.CREATED).body(diaryService.addEntry(userId, request));
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().body(new ApiError(ex.getMessage()));
+		}
+	}
+
+	@PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> update(@PathVariable("id") Long id, @Valid @RequestBody DiaryEntryRequest request,
+		BindingResult bindingResult, HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		if (bindingResult.hasErrors()) {
+			return validationError(bindingResult);
+		}
+		try {
+			return diaryService.updateEntry(userId, id, request)
+				.<ResponseEntity<?>>map(ResponseEntity::ok)
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiError("Entry not found.")));
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().body(new ApiError(ex.getMessage()));
+		}
+	}
+
+	@DeleteMapping("/{id}")
+	public ResponseEntity<?> delete(@PathVariable("id") Long id, HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		if (!diaryService.deleteEntry(userId, id)) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiError("Entry not found."));
+		}
+		return ResponseEntity.noContent().build();
+	}
+
+	private boolean notModified(Long userId, ServletWebRequest webRequest, Object... variant) {
+		ContentVersion version = contentVersionService.current(userId);
+		return version != null && ConditionalRequests.notModified(webRequest, version, null, variant);
+	}
+
+	private static ResponseEntity<?> unauthorized() {
+		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiError("Login required."));
+	}
+
+	private static ResponseEntity<?> validationError(BindingResult bindingResult) {
+		String message = bindingResult.getFieldErrors().stream()
+			.map(error -> error.getField() + ": " + error.getDefaultMessage())
+			.collect(Collectors.joining("; "));
+		return ResponseEntity.badRequest().body(new ApiError(message));
+	}
+}
@@ -0,0 +1,86 @@
+package com.dietmath.web;
+
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.export.ExportDataset;
+import com.dietmath.export.ExportFormat;
+import com.dietmath.export.ExportService;
+import com.dietmath.ratelimit.RateLimitPolicy;
+import com.dietmath.ratelimit.RateLimited;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+	private static final int GZIP_BUFFER_SIZE = 16 * 1024;
+
+	private final ExportService exportService;
+	private final UserAuthentication authentication;
+
+	public ExportController(ExportService exportService, UserAuthentication authentication) {
+		this.exportService = exportService;
+		this.authentication = authentication;
+	}
+
+	@RateLimited(RateLimitPolicy.EXPORT)
+	@GetMapping("/{dataset}")
+	public ResponseEntity<?> export(@PathVariable("dataset") String dataset,
+		@RequestParam(name = "format", defaultValue = "csv") String format,
+		@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+		HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).contentType(MediaType.APPLICATION_JSON)
+				.body(new ApiError("Login required."));
+		}
+		ExportDataset exportDataset = parse(ExportDataset.class, dataset);
+		ExportFormat exportFormat = parse(ExportFormat.class, format);
+		if (exportDataset == null || exportFormat == null) {
+			return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+				.body(new ApiError("Unknown export " + dataset + "?format=" + format + "."));
+		}
+		boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+		StreamingResponseBody body = out -> {
+			if (gzip) {
+				try (OutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE)) {
+					exportService.export(userId, exportDataset, exportFormat, compressed);
+				}
+			} else {
+				exportService.export(userId, exportDataset, exportFormat, out);
+			}
+		};
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+			.contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+			.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"dietmath-" + exportDataset.fileName()
+				+ "." + exportFormat.extension() + "\"")
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		return response.body(body);
+	}
+
+	private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+		try {
+			return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+}
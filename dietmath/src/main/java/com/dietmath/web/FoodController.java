@@ -0,0 +1,74 @@
+package com.dietmath.web;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.diary.FoodUsage;
+import com.dietmath.diary.FoodUsageService;
+import com.dietmath.food.FoodAutocompleteService;
+import com.dietmath.food.FoodSearchService;
+import com.dietmath.food.dto.FoodSuggestion;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping(value = "/foods", produces = MediaType.APPLICATION_JSON_VALUE)
+public class FoodController {
+	private final FoodSearchService foodSearchService;
+	private final FoodAutocompleteService foodAutocompleteService;
+	private final FoodUsageService foodUsageService;
+	private final UserAuthentication authentication;
+
+	public FoodController(FoodSearchService foodSearchService, FoodAutocompleteService foodAutocompleteService,
+		FoodUsageService foodUsageService, UserAuthentication authentication) {
+		this.foodSearchService = foodSearchService;
+		this.foodAutocompleteService = foodAutocompleteService;
+		this.foodUsageService = foodUsageService;
+		this.authentication = authentication;
+	}
+
+	@GetMapping("/search")
+	public ResponseEntity<?> search(@RequestParam(name = "q") String query,
+		@RequestParam(name = "cursor", required = false) String cursor,
+		@RequestParam(name = "limit", defaultValue = "20") int limit, HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiError("Login required."));
+		}
+		if (limit < 1 || limit > FoodSearchService.MAX_PAGE_SIZE) {
+			return ResponseEntity.badRequest()
+				.body(new ApiError("limit must be between 1 and " + FoodSearchService.MAX_PAGE_SIZE + "."));
+		}
+		try {
+			return ResponseEntity.ok(foodSearchService.search(userId, query, cursor, limit));
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().body(new ApiError(ex.getMessage()));
+		}
+	}
+
+	@GetMapping("/autocomplete")
+	public ResponseEntity<?> autocomplete(@RequestParam(name = "q") String query,
+		@RequestParam(name = "limit", defaultValue = "10") int limit, HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiError("Login required."));
+		}
+		int size = Math.clamp(limit, 1, FoodAutocompleteService.MAX_SUGGESTIONS);
+		List<FoodSuggestion> suggestions = new ArrayList<>(foodAutocompleteService.suggest(userId, query, size));
+		FoodUsage usage = foodUsageService.usage(userId);
+		if (usage.size() > 0) {
+			suggestions.sort(Comparator.comparingInt((FoodSuggestion food) -> usage.uses(food.id())).reversed());
+		}
+		return ResponseEntity.ok(suggestions);
+	}
+}
@@ -0,0 +1,43 @@
+package com.dietmath.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.live.LiveUpdateService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+public class LiveController {
+	private final LiveUpdateService liveUpdateService;
+	private final UserAuthentication authentication;
+
+	public LiveController(LiveUpdateService liveUpdateService, UserAuthentication authentication) {
+		this.liveUpdateService = liveUpdateService;
+		this.authentication = authentication;
+	}
+
+	// The body type must stay SseEmitter for Spring MVC to stream it.
+	@GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> live(HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+		SseEmitter emitter;
+		try {
+			emitter = liveUpdateService.open(userId);
+		} catch (IllegalStateException ex) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+		if (emitter == null) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+		}
+		return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+	}
+}
@@ -11,22 +11,26 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.ratelimit.RateLimitPolicy;
+import com.dietmath.ratelimit.RateLimited;
+import com.dietmath.user.PasswordHashingBusyException;
 import com.dietmath.user.User;
 import com.dietmath.user.UserService;
 import com.dietmath.user.dto.LoginRequest;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @Controller
 public class LoginController {
-	private static final String SESSION_USER_ID = "userId";
-	private static final String SESSION_USERNAME = "username";
-
 	private final UserService userService;
+	private final UserAuthentication authentication;
 
-	public LoginController(UserService userService) {
+	public LoginController(UserService userService, UserAuthentication authentication) {
 		this.userService = userService;
+		this.authentication = authentication;
 	}
 
 	@GetMapping(value = "/login", produces = MediaType.TEXT_HTML_VALUE)
@@ -39,10 +43,11 @@ public class LoginController {
 		return "login";
 	}
 
+	@RateLimited(RateLimitPolicy.LOGIN)
 	@PostMapping(value = "/login", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE,
 		produces = MediaType.TEXT_HTML_VALUE)
 	public String submit(@Valid @ModelAttribute LoginRequest request, BindingResult bindingResult,
-		HttpSession session, Model model) {
+		HttpServletRequest servletRequest, HttpServletResponse response, Model model) {
 		if (bindingResult.hasErrors()) {
 			String message = bindingResult.getFieldErrors().stream()
 				.map(error -> error.getField() + ": " + error.getDefaultMessage())
@@ -52,15 +57,24 @@ public class LoginController {
 			model.addAttribute("username", request.username());
 			return "login";
 		}
-		User user = userService.authenticate(request.username(), request.password());
+		User user;
+		try {
+			user = userService.authenticate(request.username(), request.password());
+		} catch (PasswordHashingBusyException ex) {
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			response.setHeader("Retry-After", "1");
+			model.addAttribute("message", "Server is busy, please try again in a moment.");
+			model.addAttribute("status", "error");
+			model.addAttribute("username", request.username());
+			return "login";
+		}
 		if (user == null) {
 			model.addAttribute("message", "Invalid username or password.");
 			model.addAttribute("status", "error");
 			model.addAttribute("username", request.username());
 			return "login";
 		}
-		session.setAttribute(SESSION_USER_ID, user.getId());
-		session.setAttribute(SESSION_USERNAME, user.getUsername());
+		authentication.signIn(servletRequest, response, user.getId(), user.getUsername());
 		return "redirect:/user";
 	}
 }
@@ -0,0 +1,109 @@
+package com.dietmath.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.ratelimit.RateLimitPolicy;
+import com.dietmath.ratelimit.RateLimited;
+import com.dietmath.ratelimit.RateLimiter;
+import com.dietmath.ratelimit.RateLimits;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+	private static final int MAX_USERNAME_KEY_LENGTH = 64;
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private final RateLimits rateLimits;
+	private final UserAuthentication authentication;
+	private final JsonMapper jsonMapper;
+
+	public RateLimitInterceptor(RateLimits rateLimits, UserAuthentication authentication, JsonMapper jsonMapper) {
+		this.rateLimits = rateLimits;
+		this.authentication = authentication;
+		this.jsonMapper = jsonMapper;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+		throws IOException {
+		if (!rateLimits.isEnabled() || !(handler instanceof HandlerMethod method)) {
+			return true;
+		}
+		RateLimited rateLimited = method.getMethodAnnotation(RateLimited.class);
+		if (rateLimited == null) {
+			return true;
+		}
+		List<RateLimiter> limiters = new ArrayList<>();
+		List<String> keys = new ArrayList<>();
+		long waitNanos = 0;
+		for (RateLimitPolicy.Limit limit : rateLimited.value().limits()) {
+			String key = key(limit.key(), request);
+			if (key != null) {
+				RateLimiter limiter = rateLimits.get(limit.limiter());
+				limiters.add(limiter);
+				keys.add(key);
+				waitNanos = Math.max(waitNanos, limiter.check(key));
+			}
+		}
+		// Tokens are only taken once every limit would pass, so a request one limit rejects costs the others nothing.
+		for (int i = 0; i < limiters.size() && waitNanos == 0; i++) {
+			waitNanos = limiters.get(i).tryAcquire(keys.get(i));
+		}
+		if (waitNanos > 0) {
+			reject(request, response, waitNanos);
+			return false;
+		}
+		return true;
+	}
+
+	private String key(RateLimitPolicy.Key key, HttpServletRequest request) {
+		return switch (key) {
+			case IP -> request.getRemoteAddr();
+			case USERNAME -> {
+				String username = request.getParameter("username");
+				if (username == null || username.isBlank()) {
+					yield null;
+				}
+				String normalized = username.strip().toLowerCase(Locale.ROOT);
+				yield normalized.length() > MAX_USERNAME_KEY_LENGTH
+					? normalized.substring(0, MAX_USERNAME_KEY_LENGTH) : normalized;
+			}
+			case USER -> {
+				Long userId = authentication.userId(request);
+				yield userId != null ? "user:" + userId : "ip:" + request.getRemoteAddr();
+			}
+		};
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos)
+		throws IOException {
+		long retryAfterSeconds = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		String message = "Too many requests, please try again in " + retryAfterSeconds + " s.";
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (accept != null && accept.contains(MediaType.TEXT_HTML_VALUE)) {
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.getWriter().write(message);
+		} else {
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			jsonMapper.writeValue(response.getWriter(), new ApiError(message));
+		}
+	}
+}
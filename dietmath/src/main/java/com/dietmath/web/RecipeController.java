@@ -0,0 +1,110 @@
+package com.dietmath.web;
+
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.food.RecipeService;
+import com.dietmath.food.dto.RecipeRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping(value = "/recipes", produces = MediaType.APPLICATION_JSON_VALUE)
+public class RecipeController {
+	private final RecipeService recipeService;
+	private final UserAuthentication authentication;
+
+	public RecipeController(RecipeService recipeService, UserAuthentication authentication) {
+		this.recipeService = recipeService;
+		this.authentication = authentication;
+	}
+
+	@GetMapping("/{id}")
+	public ResponseEntity<?> get(@PathVariable("id") Long id, HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		return recipeService.get(userId, id)
+			.<ResponseEntity<?>>map(ResponseEntity::ok)
+			.orElseGet(RecipeController::notFound);
+	}
+
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> create(@Valid @RequestBody RecipeRequest request, BindingResult bindingResult,
+		HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		if (bindingResult.hasErrors()) {
+			return validationError(bindingResult);
+		}
+		try {
+			return ResponseEntity.status(HttpStatus.CREATED).body(recipeService.create(userId, request));
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().body(new ApiError(ex.getMessage()));
+		}
+	}
+
+	@PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> update(@PathVariable("id") Long id, @Valid @RequestBody RecipeRequest request,
+		BindingResult bindingResult, HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		if (bindingResult.hasErrors()) {
+			return validationError(bindingResult);
+		}
+		try {
+			return recipeService.update(userId, id, request)
+				.<ResponseEntity<?>>map(ResponseEntity::ok)
+				.orElseGet(RecipeController::notFound);
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().body(new ApiError(ex.getMessage()));
+		}
+	}
+
+	@DeleteMapping("/{id}")
+	public ResponseEntity<?> delete(@PathVariable("id") Long id, HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return unauthorized();
+		}
+		try {
+			return recipeService.delete(userId, id) ? ResponseEntity.noContent().build() : notFound();
+		} catch (IllegalStateException ex) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiError(ex.getMessage()));
+		}
+	}
+
+	private static ResponseEntity<?> notFound() {
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiError("Recipe not found."));
+	}
+
+	private static ResponseEntity<?> unauthorized() {
+		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiError("Login required."));
+	}
+
+	private static ResponseEntity<?> validationError(BindingResult bindingResult) {
+		String message = bindingResult.getFieldErrors().stream()
+			.map(error -> error.getField() + ": " + error.getDefaultMessage())
+			.collect(Collectors.joining("; "));
+		return ResponseEntity.badRequest().body(new ApiError(message));
+	}
+}
@@ -10,10 +10,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 
+import com.dietmath.ratelimit.RateLimitPolicy;
+import com.dietmath.ratelimit.RateLimited;
+import com.dietmath.user.PasswordHashingBusyException;
 import com.dietmath.user.UserService;
 import com.dietmath.user.dto.RegisterRequest;
 import com.dietmath.user.dto.RegisterResult;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @Controller
@@ -32,10 +36,11 @@ public class RegistrationController {
 		return "register";
 	}
 
+	@RateLimited(RateLimitPolicy.REGISTER)
 	@PostMapping(value = "/register", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE,
 		produces = MediaType.TEXT_HTML_VALUE)
 	public String submit(@Valid @ModelAttribute RegisterRequest request, BindingResult bindingResult,
-		Model model) {
+		HttpServletResponse response, Model model) {
 		if (bindingResult.hasErrors()) {
 			String message = bindingResult.getFieldErrors().stream()
 				.map(error -> error.getField() + ": " + error.getDefaultMessage())
@@ -45,7 +50,17 @@ public class RegistrationController {
 			model.addAttribute("username", request.username());
 			return "register";
 		}
-		RegisterResult result = userService.register(request);
+		RegisterResult result;
+		try {
+			result = userService.register(request);
+		} catch (PasswordHashingBusyException ex) {
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			response.setHeader("Retry-After", "1");
+			model.addAttribute("message", "Server is busy, please try again in a moment.");
+			model.addAttribute("status", "error");
+			model.addAttribute("username", request.username());
+			return "register";
+		}
 		if (result.success()) {
 			return "redirect:/login?registered=1";
 		}
@@ -0,0 +1,40 @@
+package com.dietmath.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.sync.SyncService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping(value = "/sync", produces = MediaType.APPLICATION_JSON_VALUE)
+public class SyncController {
+	private final SyncService syncService;
+	private final UserAuthentication authentication;
+
+	public SyncController(SyncService syncService, UserAuthentication authentication) {
+		this.syncService = syncService;
+		this.authentication = authentication;
+	}
+
+	@GetMapping
+	public ResponseEntity<?> changes(@RequestParam(name = "since", defaultValue = "0") long since,
+		@RequestParam(name = "limit", defaultValue = "500") int limit, HttpServletRequest servletRequest) {
+		Long userId = authentication.userId(servletRequest);
+		if (userId == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiError("Login required."));
+		}
+		if (since < 0 || limit < 1 || limit > SyncService.MAX_PAGE_SIZE) {
+			return ResponseEntity.badRequest()
+				.body(new ApiError("since must be >= 0 and limit between 1 and " + SyncService.MAX_PAGE_SIZE + "."));
+		}
+		return ResponseEntity.ok(syncService.changesSince(userId, since, limit));
+	}
+}
@@ -7,9 +7,10 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -17,70 +18,84 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import com.dietmath.auth.UserAuthentication;
+import com.dietmath.sync.ContentVersion;
+import com.dietmath.sync.ContentVersionService;
+import com.dietmath.user.CalorieEngine;
 import com.dietmath.user.CalorieStrategy;
+import com.dietmath.user.CalorieTrajectory;
+import com.dietmath.user.DailyTarget;
+import com.dietmath.user.DailyTargetService;
 import com.dietmath.user.User;
-import com.dietmath.user.UserRepository;
-import com.dietmath.user.UserService;
+import com.dietmath.user.UserProfileService;
+import com.dietmath.user.UserProfileSnapshot;
 import com.dietmath.user.UserWeight;
-import com.dietmath.user.UserWeightRepository;
+import com.dietmath.user.WeightTrend;
+import com.dietmath.user.dto.CalorieTrajectoryView;
 import com.dietmath.user.dto.ProfileUpdateRequest;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Controller
 public class UserController {
-	private static final String SESSION_USER_ID = "userId";
-	private static final double CALORIES_PER_KG = 7700.0;
-	private static final double MAINTENANCE_PER_KG = 30.0;
-
-	private final UserService userService;
-	private final UserRepository userRepository;
-	private final UserWeightRepository userWeightRepository;
-
-	public UserController(UserService userService, UserRepository userRepository,
-		UserWeightRepository userWeightRepository) {
-		this.userService = userService;
-		this.userRepository = userRepository;
-		this.userWeightRepository = userWeightRepository;
+	private static final int DEFAULT_TRAJECTORY_DAYS = 180;
+	private static final int MAX_TRAJECTORY_DAYS = 3660;
+
+	private final UserProfileService userProfileService;
+	private final CalorieEngine calorieEngine;
+	private final DailyTargetService dailyTargetService;
+	private final ContentVersionService contentVersionService;
+	private final UserAuthentication authentication;
+
+	public UserController(UserProfileService userProfileService, CalorieEngine calorieEngine,
+		DailyTargetService dailyTargetService, ContentVersionService contentVersionService,
+		UserAuthentication authentication) {
+		this.userProfileService = userProfileService;
+		this.calorieEngine = calorieEngine;
+		this.dailyTargetService = dailyTargetService;
+		this.contentVersionService = contentVersionService;
+		this.authentication = authentication;
 	}
 
 	@GetMapping(value = "/user", produces = MediaType.TEXT_HTML_VALUE)
 	public String page(@RequestParam(name = "message", required = false) String message,
 		@RequestParam(name = "edit", required = false) String edit,
-		HttpSession session, Model model) {
-		Long userId = getUserId(session);
+		ServletWebRequest webRequest, Model model) {
+		Long userId = authentication.userId(webRequest.getRequest());
 		if (userId == null) {
 			return "redirect:/login";
 		}
-		User user = userService.findById(userId);
-		if (user == null) {
-			session.invalidate();
+		ContentVersion version = contentVersionService.current(userId);
+		if (version != null && ConditionalRequests.notModified(webRequest, version, LocalDate.now(), message, edit)) {
+			return null;
+		}
+		UserProfileSnapshot profile = userProfileService.load(userId, version);
+		if (profile == null) {
+			authentication.signOut(webRequest.getRequest(), webRequest.getResponse());
 			return "redirect:/login";
 		}
-		Optional<UserWeight> latestWeight = userWeightRepository.findTopByUserIdOrderByRecordedAtDesc(userId);
-		Optional<UserWeight> fixedBaseWeight = userWeightRepository
-			.findTopByUserIdAndCalorieStrategyOrderByRecordedAtAsc(userId, CalorieStrategy.FIXED);
 		boolean editWeights = isEditRequested(edit);
-		populateModel(model, user, latestWeight.orElse(null), fixedBaseWeight.orElse(null),
-			editWeights, normalizeMessage(message), "");
+		populateModel(model, profile, editWeights, normalizeMessage(message), "");
 		return "user";
 	}
 
 	@PostMapping(value = "/user", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE,
 		produces = MediaType.TEXT_HTML_VALUE)
 	public String update(@ModelAttribute ProfileUpdateRequest request, BindingResult bindingResult,
-		HttpSession session, Model model) {
-		Long userId = getUserId(session);
+		HttpServletRequest servletRequest, HttpServletResponse response, Model model) {
+		Long userId = authentication.userId(servletRequest);
 		if (userId == null) {
 			return "redirect:/login";
 		}
-		User user = userService.findById(userId);
-		if (user == null) {
-			session.invalidate();
+		UserProfileSnapshot profile = userProfileService.load(userId);
+		if (profile == null) {
+			authentication.signOut(servletRequest, response);
 			return "redirect:/login";
 		}
-
 		List<String> errors = new ArrayList<>();
 		if (bindingResult.hasErrors()) {
 			bindingResult.getAllErrors().forEach(error -> errors.add(error.getDefaultMessage()));
@@ -106,14 +121,16 @@ public class UserController {
 		}
 
 		if (!errors.isEmpty()) {
-			Optional<UserWeight> latestWeight = userWeightRepository.findTopByUserIdOrderByRecordedAtDesc(userId);
-			Optional<UserWeight> fixedBaseWeight = userWeightRepository
-				.findTopByUserIdAndCalorieStrategyOrderByRecordedAtAsc(userId, CalorieStrategy.FIXED);
-			populateModel(model, user, latestWeight.orElse(null), fixedBaseWeight.orElse(null),
-				editWeights, "", join(errors));
+			populateModel(model, profile, editWeights, "", join(errors));
 			return "user";
 		}
 
+		// The cached snapshot shares its User with concurrent requests, so edits go to a fresh copy.
+		User user = userProfileService.findUser(userId);
+		if (user == null) {
+			authentication.signOut(servletRequest, response);
+			return "redirect:/login";
+		}
 		String message = "";
 		boolean changed = false;
 		if (request.getBirthDate() != null) {
@@ -129,7 +146,7 @@ public class UserController {
 			changed = true;
 		}
 		if (changed) {
-			userRepository.save(user);
+			profile = userProfileService.saveUser(user);
 		}
 
 		boolean weightSaved = false;
@@ -140,40 +157,61 @@ public class UserController {
 			}
 			UserWeight weight = new UserWeight(userId, request.getWeight(), request.getGoalWeight(),
 				request.getGoalDate(), strategy);
-			userWeightRepository.save(weight);
+			profile = userProfileService.addWeight(weight);
 			weightSaved = true;
 		}
 		if (message.isEmpty() && (changed || weightSaved)) {
 			message = "Saved.";
 		}
 
-		Optional<UserWeight> latestWeight = userWeightRepository.findTopByUserIdOrderByRecordedAtDesc(userId);
-		Optional<UserWeight> fixedBaseWeight = userWeightRepository
-			.findTopByUserIdAndCalorieStrategyOrderByRecordedAtAsc(userId, CalorieStrategy.FIXED);
-		populateModel(model, user, latestWeight.orElse(null), fixedBaseWeight.orElse(null),
-			false, message, "");
+		populateModel(model, profile, false, message, "");
 		return "user";
 	}
 
-	@PostMapping("/logout")
-	public String logout(HttpSession session) {
-		session.invalidate();
-		return "redirect:/login";
-	}
-
-	private static Long getUserId(HttpSession session) {
-		Object value = session.getAttribute(SESSION_USER_ID);
-		if (value instanceof Long) {
-			return (Long) value;
+	@GetMapping(value = "/user/trajectory", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public ResponseEntity<?> trajectory(@RequestParam(name = "days", required = false) Integer days,
+		ServletWebRequest webRequest) {
+		Long userId = authentication.userId(webRequest.getRequest());
+		if (userId == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiError("Login required."));
+		}
+		ContentVersion version = contentVersionService.current(userId);
+		if (version != null && ConditionalRequests.notModified(webRequest, version, LocalDate.now(), days)) {
+			return null;
 		}
-		if (value instanceof Integer) {
-			return ((Integer) value).longValue();
+		UserProfileSnapshot profile = userProfileService.load(userId, version);
+		if (profile == null || profile.latestWeight() == null) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiError("Add a weight entry first."));
 		}
-		return null;
+		int length = days == null ? DEFAULT_TRAJECTORY_DAYS : Math.clamp(days, 1, MAX_TRAJECTORY_DAYS);
+		UserWeight latestWeight = profile.latestWeight();
+		UserWeight base = DailyTargetService.calorieBase(latestWeight, profile.fixedBaseWeight());
+		LocalDate today = LocalDate.now();
+		// The chart starts from the smoothed weight so one noisy weigh-in does not shift the whole curve.
+		double current = profile.weightTrend() != null ? profile.weightTrend().trendKg()
+			: latestWeight.getWeight().doubleValue();
+		double baseWeight = base.getWeight().doubleValue();
+		boolean hasGoal = base.getGoalWeight() != null && base.getGoalDate() != null;
+		double goalWeight = hasGoal ? base.getGoalWeight().doubleValue() : baseWeight;
+		long daysToGoal = hasGoal ? ChronoUnit.DAYS.between(today, base.getGoalDate()) : 0;
+		CalorieTrajectory trajectory = new CalorieTrajectory(length);
+		calorieEngine.fillTrajectory(latestWeight.getCalorieStrategy(), current, baseWeight, goalWeight, daysToGoal,
+			length, trajectory);
+		return ResponseEntity.ok(new CalorieTrajectoryView(today, latestWeight.getCalorieStrategy(),
+			trajectory.targetsCopy(), trajectory.weightsCopy()));
+	}
+
+	@PostMapping("/logout")
+	public String logout(HttpServletRequest servletRequest, HttpServletResponse response) {
+		authentication.signOut(servletRequest, response);
+		return "redirect:/login";
 	}
 
-	private void populateModel(Model model, User user, UserWeight latestWeight, UserWeight fixedBaseWeight,
-		boolean editWeights, String message, String errorMessage) {
+	private void populateModel(Model model, UserProfileSnapshot profile, boolean editWeights, String message,
+		String errorMessage) {
+		User user = profile.user();
+		UserWeight latestWeight = profile.latestWeight();
 		boolean showWeightForm = editWeights || latestWeight == null;
 		model.addAttribute("username", user.getUsername());
 		model.addAttribute("message", normalizeMessage(message));
@@ -197,55 +235,49 @@ public class UserController {
 		model.addAttribute("goalDateValue",
 			formatDateValue(latestWeight != null ? latestWeight.getGoalDate() : null));
 		model.addAttribute("strategyValue", latestWeight != null ? latestWeight.getCalorieStrategy() : null);
+		model.addAttribute("trendDisplay", formatTrendDisplay(profile.weightTrend()));
 		model.addAttribute("bmiText", calculateBmiText(user, latestWeight));
-		model.addAttribute("calorieText", calculateCaloriesText(latestWeight, fixedBaseWeight));
+		model.addAttribute("calorieText", calculateCaloriesText(profile));
 	}
 
-	private static String calculateBmiText(User user, UserWeight latestWeight) {
+	private String calculateBmiText(User user, UserWeight latestWeight) {
 		if (user.getHeight() == null || latestWeight == null) {
 			return "Add height and weight to compute BMI.";
 		}
-		double heightMeters = user.getHeight() / 100.0;
-		if (heightMeters <= 0) {
+		if (user.getHeight() <= 0) {
 			return "Height must be greater than 0.";
 		}
-		double weight = latestWeight.getWeight().doubleValue();
-		double bmi = weight / (heightMeters * heightMeters);
+		double bmi = calorieEngine.bmi(latestWeight.getWeight().doubleValue(), user.getHeight());
 		return "BMI: " + roundToOneDecimal(bmi);
 	}
 
-	private static String calculateCaloriesText(UserWeight latestWeight, UserWeight fixedBaseWeight) {
-		if (latestWeight == null) {
+	private String calculateCaloriesText(UserProfileSnapshot profile) {
+		DailyTarget target = dailyTargetService.target(profile, LocalDate.now());
+		if (target == null) {
 			return "Add a weight entry to see daily calories.";
 		}
-		CalorieStrategy strategy = latestWeight.getCalorieStrategy();
-		UserWeight base = strategy == CalorieStrategy.FIXED && fixedBaseWeight != null
-			? fixedBaseWeight
-			: latestWeight;
-		double weight = base.getWeight().doubleValue();
-		double maintenance = weight * MAINTENANCE_PER_KG;
-
-		LocalDate goalDate = base.getGoalDate();
-		BigDecimal goalWeightValue = base.getGoalWeight();
-		if (goalDate == null || goalWeightValue == null) {
-			return "Maintenance: " + roundToWhole(maintenance) + " kcal (no goal set)";
-		}
-		long days = ChronoUnit.DAYS.between(LocalDate.now(), goalDate);
-		if (days <= 0) {
-			return "Maintenance: " + roundToWhole(maintenance) + " kcal (goal date passed)";
+		return switch (target.kind()) {
+			case NO_GOAL -> "Maintenance: " + roundToWhole(target.calories()) + " kcal (no goal set)";
+			case GOAL_PASSED -> "Maintenance: " + roundToWhole(target.calories()) + " kcal (goal date passed)";
+			case GOAL -> (target.strategy() == CalorieStrategy.FIXED ? "Fixed" : "Dynamic") + " target: "
+				+ roundToWhole(target.calories()) + " kcal";
+		};
+	}
+
+	private static String formatTrendDisplay(WeightTrend trend) {
+		if (trend == null) {
+			return "n/a";
 		}
-		double deltaKg = weight - goalWeightValue.doubleValue();
-		double dailyDeficit = (deltaKg * CALORIES_PER_KG) / days;
-		double recommended = maintenance - dailyDeficit;
-		String label = strategy == CalorieStrategy.FIXED ? "Fixed" : "Dynamic";
-		return label + " target: " + roundToWhole(recommended) + " kcal";
+		String weekly = roundToOneDecimal(trend.weeklyRateKg());
+		String sign = weekly.startsWith("-") || weekly.equals("0.0") ? "" : "+";
+		return roundToOneDecimal(trend.trendKg()) + " kg (" + sign + weekly + " kg/week)";
 	}
 
-	private static String roundToOneDecimal(double value) {
+	static String roundToOneDecimal(double value) {
 		return BigDecimal.valueOf(value).setScale(1, RoundingMode.HALF_UP).toString();
 	}
 
-	private static String roundToWhole(double value) {
+	static String roundToWhole(double value) {
 		return BigDecimal.valueOf(value).setScale(0, RoundingMode.HALF_UP).toString();
 	}
 
@@ -0,0 +1,52 @@
+package com.dietmath.web;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@Component
+public class ViewRenderMetricsInterceptor implements HandlerInterceptor {
+	private static final String RENDER_START = ViewRenderMetricsInterceptor.class.getName() + ".start";
+	private static final String RENDER_VIEW = ViewRenderMetricsInterceptor.class.getName() + ".view";
+
+	private final MeterRegistry meterRegistry;
+
+	public ViewRenderMetricsInterceptor(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+		ModelAndView modelAndView) {
+		if (modelAndView == null || !modelAndView.isReference()) {
+			return;
+		}
+		String viewName = modelAndView.getViewName();
+		if (viewName == null || viewName.startsWith("redirect:") || viewName.startsWith("forward:")) {
+			return;
+		}
+		request.setAttribute(RENDER_VIEW, viewName);
+		request.setAttribute(RENDER_START, System.nanoTime());
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+		Exception ex) {
+		if (!(request.getAttribute(RENDER_START) instanceof Long started)) {
+			return;
+		}
+		Timer.builder("dietmath.view.render")
+			.description("Template rendering time per view")
+			.tag("view", (String) request.getAttribute(RENDER_VIEW))
+			.tag("outcome", ex == null ? "success" : "error")
+			.register(meterRegistry)
+			.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+	}
+}
@@ -0,0 +1,23 @@
+package com.dietmath.web;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+	private final ViewRenderMetricsInterceptor viewRenderMetricsInterceptor;
+	private final RateLimitInterceptor rateLimitInterceptor;
+
+	public WebConfig(ViewRenderMetricsInterceptor viewRenderMetricsInterceptor,
+		RateLimitInterceptor rateLimitInterceptor) {
+		this.viewRenderMetricsInterceptor = viewRenderMetricsInterceptor;
+		this.rateLimitInterceptor = rateLimitInterceptor;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(rateLimitInterceptor);
+		registry.addInterceptor(viewRenderMetricsInterceptor);
+	}
+}
@@ -0,0 +1,4 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX foods_name_trgm_idx
+    ON foods USING GIN (lower(name) gin_trgm_ops);
@@ -0,0 +1,223 @@
+-- Yearly range partitions for the two history tables. Lookups by date range prune to the partitions they touch, and
+-- vacuum and index maintenance work on one year at a time. Rows outside the created years land in the default
+-- partition; PartitionMaintenance creates the upcoming years ahead of time.
+
+CREATE OR REPLACE FUNCTION create_yearly_partition(parent TEXT, key_column TEXT, partition_year INT)
+RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := parent || '_' || partition_year;
+    key_type TEXT;
+    lower_bound TEXT;
+    upper_bound TEXT;
+    misplaced BOOLEAN;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('dietmath.partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    SELECT format_type(atttypid, atttypmod) INTO key_type
+    FROM pg_attribute
+    WHERE attrelid = parent::regclass AND attname = key_column;
+    IF key_type = 'date' THEN
+        lower_bound := format('%s-01-01', partition_year);
+        upper_bound := format('%s-01-01', partition_year + 1);
+    ELSE
+        lower_bound := format('%s-01-01 00:00:00+00', partition_year);
+        upper_bound := format('%s-01-01 00:00:00+00', partition_year + 1);
+    END IF;
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= %L AND %I < %L)',
+        parent || '_default', key_column, lower_bound, key_column, upper_bound) INTO misplaced;
+    IF misplaced THEN
+        RAISE WARNING 'Not creating %: the default partition already holds rows for %.', partition_name,
+            partition_year;
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, parent, lower_bound, upper_bound);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE diary_entries RENAME TO diary_entries_old;
+ALTER TABLE diary_entries_old RENAME CONSTRAINT diary_entries_pkey TO diary_entries_old_pkey;
+ALTER INDEX diary_entries_user_date_idx RENAME TO diary_entries_old_user_date_idx;
+ALTER INDEX diary_entries_user_change_seq_idx RENAME TO diary_entries_old_user_change_seq_idx;
+
+CREATE TABLE diary_entries (
+    id BIGINT NOT NULL DEFAULT nextval('diary_entries_id_seq'),
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    food_id BIGINT NOT NULL REFERENCES foods(id) ON DELETE RESTRICT,
+    entry_date DATE NOT NULL,
+    grams NUMERIC(10, 2) NOT NULL CHECK (grams > 0),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    calories NUMERIC(10, 2) NOT NULL DEFAULT 0 CHECK (calories >= 0),
+    change_seq BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, entry_date)
+) PARTITION BY RANGE (entry_date);
+
+ALTER SEQUENCE diary_entries_id_seq OWNED BY diary_entries.id;
+
+CREATE TABLE diary_entries_default PARTITION OF diary_entries DEFAULT;
+
+SELECT create_yearly_partition('diary_entries', 'entry_date', y)
+FROM generate_series(
+    GREATEST(
+        COALESCE((SELECT EXTRACT(YEAR FROM MIN(entry_date))::INT FROM diary_entries_old),
+            EXTRACT(YEAR FROM CURRENT_DATE)::INT),
+        EXTRACT(YEAR FROM CURRENT_DATE)::INT - 10),
+    EXTRACT(YEAR FROM CURRENT_DATE)::INT + 1) AS y;
+
+INSERT INTO diary_entries (id, user_id, food_id, entry_date, grams, created_at, calories, change_seq)
+SELECT id, user_id, food_id, entry_date, grams, created_at, calories, change_seq
+FROM diary_entries_old;
+
+DROP TABLE diary_entries_old;
+
+CREATE INDEX diary_entries_user_date_idx
+    ON diary_entries (user_id, entry_date);
+
+CREATE INDEX diary_entries_user_change_seq_idx
+    ON diary_entries (user_id, change_seq);
+
+ALTER TABLE user_weights RENAME TO user_weights_old;
+ALTER TABLE user_weights_old RENAME CONSTRAINT user_weights_pkey TO user_weights_old_pkey;
+ALTER INDEX user_weights_user_recorded_at_idx RENAME TO user_weights_old_user_recorded_at_idx;
+ALTER INDEX user_weights_user_change_seq_idx RENAME TO user_weights_old_user_change_seq_idx;
+
+CREATE TABLE user_weights (
+    id BIGINT NOT NULL DEFAULT nextval('user_weights_id_seq'),
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    weight NUMERIC(6, 2) NOT NULL CHECK (weight > 0),
+    goal_weight NUMERIC(6, 2) CHECK (goal_weight > 0),
+    goal_date DATE,
+    calorie_strategy VARCHAR(16) NOT NULL CHECK (calorie_strategy IN ('DYNAMIC', 'FIXED')),
+    recorded_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    change_seq BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, recorded_at)
+) PARTITION BY RANGE (recorded_at);
+
+ALTER SEQUENCE user_weights_id_seq OWNED BY user_weights.id;
+
+CREATE TABLE user_weights_default PARTITION OF user_weights DEFAULT;
+
+SELECT create_yearly_partition('user_weights', 'recorded_at', y)
+FROM generate_series(
+    GREATEST(
+        COALESCE((SELECT EXTRACT(YEAR FROM MIN(recorded_at) AT TIME ZONE 'UTC')::INT FROM user_weights_old),
+            EXTRACT(YEAR FROM CURRENT_DATE)::INT),
+        EXTRACT(YEAR FROM CURRENT_DATE)::INT - 10),
+    EXTRACT(YEAR FROM CURRENT_DATE)::INT + 1) AS y;
+
+INSERT INTO user_weights (id, user_id, weight, goal_weight, goal_date, calorie_strategy, recorded_at, change_seq)
+SELECT id, user_id, weight, goal_weight, goal_date, calorie_strategy, recorded_at, change_seq
+FROM user_weights_old;
+
+DROP TABLE user_weights_old;
+
+CREATE INDEX user_weights_user_recorded_at_idx
+    ON user_weights (user_id, recorded_at);
+
+CREATE INDEX user_weights_user_change_seq_idx
+    ON user_weights (user_id, change_seq);
+
+-- An UPDATE that moves a row to another partition runs as a delete plus an insert; only a real delete is a tombstone.
+CREATE OR REPLACE FUNCTION sync_record_tombstone()
+RETURNS TRIGGER AS $$
+DECLARE
+    seq BIGINT;
+    still_present BOOLEAN;
+BEGIN
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE id = $1)',
+        CASE TG_ARGV[0] WHEN 'DIARY' THEN 'diary_entries' ELSE 'user_weights' END)
+        INTO still_present USING OLD.id;
+    IF still_present THEN
+        RETURN NULL;
+    END IF;
+    seq := sync_next_change_seq(OLD.user_id);
+    IF seq IS NOT NULL THEN
+        INSERT INTO sync_tombstones (user_id, entity, entity_id, change_seq)
+        VALUES (OLD.user_id, TG_ARGV[0], OLD.id, seq)
+        ON CONFLICT (user_id, entity, entity_id) DO UPDATE SET change_seq = EXCLUDED.change_seq;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER diary_entries_calories
+BEFORE INSERT OR UPDATE ON diary_entries
+FOR EACH ROW
+EXECUTE FUNCTION diary_entries_set_calories();
+
+CREATE TRIGGER diary_entries_rollup_insert
+AFTER INSERT ON diary_entries
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION diary_entries_rollup();
+
+CREATE TRIGGER diary_entries_rollup_update
+AFTER UPDATE ON diary_entries
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION diary_entries_rollup();
+
+CREATE TRIGGER diary_entries_rollup_delete
+AFTER DELETE ON diary_entries
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION diary_entries_rollup();
+
+CREATE TRIGGER diary_entries_change_seq
+BEFORE INSERT OR UPDATE ON diary_entries
+FOR EACH ROW
+EXECUTE FUNCTION sync_set_change_seq();
+
+CREATE TRIGGER diary_entries_tombstone
+AFTER DELETE ON diary_entries
+FOR EACH ROW
+EXECUTE FUNCTION sync_record_tombstone('DIARY');
+
+CREATE TRIGGER user_weights_change_seq
+BEFORE INSERT OR UPDATE ON user_weights
+FOR EACH ROW
+EXECUTE FUNCTION sync_set_change_seq();
+
+CREATE TRIGGER user_weights_tombstone
+AFTER DELETE ON user_weights
+FOR EACH ROW
+EXECUTE FUNCTION sync_record_tombstone('WEIGHT');
+
+CREATE TRIGGER user_weights_data_version_insert
+AFTER INSERT ON user_weights
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER user_weights_data_version_update
+AFTER UPDATE ON user_weights
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER user_weights_data_version_delete
+AFTER DELETE ON user_weights
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER diary_entries_data_version_insert
+AFTER INSERT ON diary_entries
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER diary_entries_data_version_update
+AFTER UPDATE ON diary_entries
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER diary_entries_data_version_delete
+AFTER DELETE ON diary_entries
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
@@ -0,0 +1,14 @@
+CREATE TABLE daily_targets (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    target_date DATE NOT NULL,
+    kind VARCHAR(16) NOT NULL CHECK (kind IN ('NO_GOAL', 'GOAL_PASSED', 'GOAL')),
+    calorie_strategy VARCHAR(16) NOT NULL CHECK (calorie_strategy IN ('DYNAMIC', 'FIXED')),
+    calories NUMERIC(10, 2) NOT NULL,
+    weight_id BIGINT NOT NULL,
+    base_weight_id BIGINT NOT NULL,
+    computed_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (user_id, target_date)
+);
+
+CREATE INDEX daily_targets_target_date_idx
+    ON daily_targets (target_date);
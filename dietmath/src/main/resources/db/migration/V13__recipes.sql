@@ -0,0 +1,86 @@
+CREATE TABLE recipes (
+    food_id BIGINT PRIMARY KEY REFERENCES foods(id) ON DELETE CASCADE,
+    yield_grams NUMERIC(10, 2) CHECK (yield_grams > 0),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE recipe_ingredients (
+    recipe_id BIGINT NOT NULL REFERENCES recipes(food_id) ON DELETE CASCADE,
+    ingredient_id BIGINT NOT NULL REFERENCES foods(id) ON DELETE RESTRICT,
+    grams NUMERIC(10, 2) NOT NULL CHECK (grams > 0),
+    PRIMARY KEY (recipe_id, ingredient_id),
+    CHECK (recipe_id <> ingredient_id)
+);
+
+CREATE INDEX recipe_ingredients_ingredient_idx
+    ON recipe_ingredients (ingredient_id);
+
+-- Per-100g calories of a recipe from its ingredients, over the cooked yield if given, else the raw ingredient weight.
+CREATE OR REPLACE FUNCTION recipe_calories_per_100g(recipe BIGINT)
+RETURNS INTEGER AS $$
+    SELECT COALESCE(ROUND(
+        SUM(i.grams * f.calories_per_100g / 100.0) * 100.0 / NULLIF(COALESCE(r.yield_grams, SUM(i.grams)), 0)
+    )::INTEGER, 0)
+    FROM recipes r
+    LEFT JOIN recipe_ingredients i ON i.recipe_id = r.food_id
+    LEFT JOIN foods f ON f.id = i.ingredient_id
+    WHERE r.food_id = recipe
+    GROUP BY r.yield_grams;
+$$ LANGUAGE sql STABLE;
+
+-- When foods change calories, recompute the recipes using them. The UPDATE below fires this trigger again for those
+-- recipes, so changes climb nested recipes one level per statement and stop where a total does not move.
+CREATE OR REPLACE FUNCTION recipes_refresh_calories()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        JOIN recipe_ingredients i ON i.ingredient_id = n.id
+        WHERE n.calories_per_100g IS DISTINCT FROM o.calories_per_100g
+    ) THEN
+        RETURN NULL;
+    END IF;
+    UPDATE foods f
+    SET calories_per_100g = c.calories_per_100g
+    FROM (
+        SELECT r.recipe_id, recipe_calories_per_100g(r.recipe_id) AS calories_per_100g
+        FROM (
+            SELECT DISTINCT i.recipe_id
+            FROM new_rows n
+            JOIN old_rows o ON o.id = n.id
+            JOIN recipe_ingredients i ON i.ingredient_id = n.id
+            WHERE n.calories_per_100g IS DISTINCT FROM o.calories_per_100g
+        ) r
+        ORDER BY r.recipe_id
+    ) c
+    WHERE f.id = c.recipe_id AND f.calories_per_100g IS DISTINCT FROM c.calories_per_100g;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER foods_recipes_refresh
+AFTER UPDATE ON foods
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION recipes_refresh_calories();
+
+-- Recipes appear in the diary day response, so a recipe change must move its owner's ETag like a diary change does.
+CREATE TRIGGER foods_data_version_insert
+AFTER INSERT ON foods
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER foods_data_version_update
+AFTER UPDATE ON foods
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER foods_data_version_delete
+AFTER DELETE ON foods
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
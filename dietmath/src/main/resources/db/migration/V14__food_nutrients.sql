@@ -0,0 +1,61 @@
+-- Per-100g nutrients as a packed float4 vector in the fixed order of com.dietmath.food.Nutrient
+-- (protein, carbs, fat, fiber, sugar). NULL when unknown; a NULL element means that one nutrient is unknown.
+ALTER TABLE foods ADD COLUMN nutrients REAL[]
+    CHECK (array_ndims(nutrients) = 1 AND array_lower(nutrients, 1) = 1);
+
+-- Recipe nutrients are derived from the ingredients exactly like calories; unknown ingredient values count as 0.
+CREATE OR REPLACE FUNCTION recipe_nutrients_per_100g(recipe BIGINT)
+RETURNS REAL[] AS $$
+    SELECT array_agg((t.amount * 100.0 / NULLIF(w.weight, 0))::REAL ORDER BY t.position)
+    FROM (
+        SELECT v.position, SUM(i.grams * COALESCE(v.value, 0) / 100.0) AS amount
+        FROM recipe_ingredients i
+        JOIN foods f ON f.id = i.ingredient_id
+        CROSS JOIN LATERAL unnest(f.nutrients) WITH ORDINALITY AS v(value, position)
+        WHERE i.recipe_id = recipe
+        GROUP BY v.position
+    ) t
+    CROSS JOIN (
+        SELECT COALESCE(
+            r.yield_grams,
+            (SELECT SUM(grams) FROM recipe_ingredients WHERE recipe_id = r.food_id)
+        ) AS weight
+        FROM recipes r
+        WHERE r.food_id = recipe
+    ) w;
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION recipes_refresh_calories()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        JOIN recipe_ingredients i ON i.ingredient_id = n.id
+        WHERE n.calories_per_100g IS DISTINCT FROM o.calories_per_100g
+            OR n.nutrients IS DISTINCT FROM o.nutrients
+    ) THEN
+        RETURN NULL;
+    END IF;
+    UPDATE foods f
+    SET calories_per_100g = c.calories_per_100g, nutrients = c.nutrients
+    FROM (
+        SELECT r.recipe_id,
+            recipe_calories_per_100g(r.recipe_id) AS calories_per_100g,
+            recipe_nutrients_per_100g(r.recipe_id) AS nutrients
+        FROM (
+            SELECT DISTINCT i.recipe_id
+            FROM new_rows n
+            JOIN old_rows o ON o.id = n.id
+            JOIN recipe_ingredients i ON i.ingredient_id = n.id
+            WHERE n.calories_per_100g IS DISTINCT FROM o.calories_per_100g
+                OR n.nutrients IS DISTINCT FROM o.nutrients
+        ) r
+        ORDER BY r.recipe_id
+    ) c
+    WHERE f.id = c.recipe_id
+        AND (f.calories_per_100g IS DISTINCT FROM c.calories_per_100g OR f.nutrients IS DISTINCT FROM c.nutrients);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,10 @@
+-- Running smoothed weight per user, advanced by one step for each new user_weights row (see WeightTrend).
+CREATE TABLE weight_trends (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    trend_weight DOUBLE PRECISION NOT NULL,
+    daily_rate DOUBLE PRECISION NOT NULL,
+    samples INTEGER NOT NULL CHECK (samples > 0),
+    last_weight_id BIGINT NOT NULL,
+    last_recorded_at TIMESTAMPTZ NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,15 @@
+-- Tells every app instance LISTENing on dietmath_user_data that a user's data changed, as "<user id>:<data version>".
+-- NOTIFY is delivered on commit, so listeners never see changes that roll back.
+CREATE OR REPLACE FUNCTION users_notify_data_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('dietmath_user_data', NEW.id || ':' || NEW.data_version);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_data_version_notify
+AFTER UPDATE OF data_version ON users
+FOR EACH ROW
+WHEN (NEW.data_version IS DISTINCT FROM OLD.data_version)
+EXECUTE FUNCTION users_notify_data_version();
@@ -0,0 +1,4 @@
+-- Per-user food lookups (autocomplete, macro totals) read only USER rows; BUILTIN rows have no user_id.
+CREATE INDEX foods_user_id_idx
+    ON foods (user_id, id)
+    WHERE source = 'USER';
@@ -0,0 +1,41 @@
+-- A year whose rows already sit in the default partition (an entry dated ahead of the partitions that exist) used to
+-- be skipped for good. Now those rows move into the new partition as it is created. The move bypasses the row
+-- triggers: the rows only change partition, so totals, change logs and data versions must not see a delete.
+DROP FUNCTION create_yearly_partition(TEXT, TEXT, INT);
+
+CREATE FUNCTION create_yearly_partition(parent TEXT, key_column TEXT, partition_year INT)
+RETURNS INT AS $$
+DECLARE
+    partition_name TEXT := parent || '_' || partition_year;
+    default_name TEXT := parent || '_default';
+    key_type TEXT;
+    lower_bound TEXT;
+    upper_bound TEXT;
+    moved INT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('dietmath.partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+    SELECT format_type(atttypid, atttypmod) INTO key_type
+    FROM pg_attribute
+    WHERE attrelid = parent::regclass AND attname = key_column;
+    IF key_type = 'date' THEN
+        lower_bound := format('%s-01-01', partition_year);
+        upper_bound := format('%s-01-01', partition_year + 1);
+    ELSE
+        lower_bound := format('%s-01-01 00:00:00+00', partition_year);
+        upper_bound := format('%s-01-01 00:00:00+00', partition_year + 1);
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name, parent);
+    EXECUTE format('ALTER TABLE %I DISABLE TRIGGER USER', default_name);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) '
+        'INSERT INTO %I SELECT * FROM moved',
+        default_name, key_column, lower_bound, key_column, upper_bound, partition_name);
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    EXECUTE format('ALTER TABLE %I ENABLE TRIGGER USER', default_name);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        parent, partition_name, lower_bound, upper_bound);
+    RETURN moved;
+END;
+$$ LANGUAGE plpgsql;
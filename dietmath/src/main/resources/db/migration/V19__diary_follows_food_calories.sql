@@ -0,0 +1,25 @@
+-- Diary entries follow their food: when a food's calories change (a recipe edit, a nested recipe refresh or an
+-- import), its entries are re-derived, which moves daily_totals through the rollup trigger. Macro totals read live
+-- nutrients, so calories and macros of a day always come from the same food values.
+CREATE OR REPLACE FUNCTION diary_entries_refresh_calories()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE diary_entries d
+    SET calories = ROUND(d.grams * c.calories_per_100g / 100.0, 2)
+    FROM (
+        SELECT n.id, n.user_id, n.calories_per_100g
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        WHERE n.calories_per_100g IS DISTINCT FROM o.calories_per_100g
+    ) c
+    -- USER foods are only logged by their owner; matching on user_id lets the lookup use the diary index.
+    WHERE d.food_id = c.id AND (c.user_id IS NULL OR d.user_id = c.user_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER foods_diary_refresh
+AFTER UPDATE ON foods
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION diary_entries_refresh_calories();
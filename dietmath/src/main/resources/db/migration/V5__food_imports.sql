@@ -0,0 +1,6 @@
+CREATE TABLE food_imports (
+    source_name VARCHAR(255) PRIMARY KEY,
+    checksum CHAR(64) NOT NULL,
+    row_count INTEGER NOT NULL CHECK (row_count >= 0),
+    imported_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
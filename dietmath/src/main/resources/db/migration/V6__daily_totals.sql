@@ -0,0 +1,93 @@
+ALTER TABLE diary_entries
+    ADD COLUMN calories NUMERIC(10, 2) NOT NULL DEFAULT 0 CHECK (calories >= 0);
+
+UPDATE diary_entries d
+SET calories = ROUND(d.grams * f.calories_per_100g / 100.0, 2)
+FROM foods f
+WHERE f.id = d.food_id;
+
+CREATE OR REPLACE FUNCTION diary_entries_set_calories()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT'
+        OR NEW.food_id IS DISTINCT FROM OLD.food_id
+        OR NEW.grams IS DISTINCT FROM OLD.grams THEN
+        NEW.calories := COALESCE(
+            (SELECT ROUND(NEW.grams * f.calories_per_100g / 100.0, 2) FROM foods f WHERE f.id = NEW.food_id),
+            0);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER diary_entries_calories
+BEFORE INSERT OR UPDATE ON diary_entries
+FOR EACH ROW
+EXECUTE FUNCTION diary_entries_set_calories();
+
+CREATE TABLE daily_totals (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    entry_date DATE NOT NULL,
+    calories NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    grams NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    entry_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, entry_date)
+);
+
+INSERT INTO daily_totals (user_id, entry_date, calories, grams, entry_count)
+SELECT user_id, entry_date, SUM(calories), SUM(grams), COUNT(*)
+FROM diary_entries
+GROUP BY user_id, entry_date;
+
+CREATE OR REPLACE FUNCTION diary_entries_rollup()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE daily_totals t
+        SET calories = t.calories - r.calories,
+            grams = t.grams - r.grams,
+            entry_count = t.entry_count - r.entry_count
+        FROM (
+            SELECT user_id, entry_date, SUM(calories) AS calories, SUM(grams) AS grams, COUNT(*) AS entry_count
+            FROM old_rows
+            GROUP BY user_id, entry_date
+        ) r
+        WHERE t.user_id = r.user_id AND t.entry_date = r.entry_date;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO daily_totals (user_id, entry_date, calories, grams, entry_count)
+        SELECT user_id, entry_date, SUM(calories), SUM(grams), COUNT(*)
+        FROM new_rows
+        GROUP BY user_id, entry_date
+        ORDER BY user_id, entry_date
+        ON CONFLICT (user_id, entry_date) DO UPDATE
+        SET calories = daily_totals.calories + EXCLUDED.calories,
+            grams = daily_totals.grams + EXCLUDED.grams,
+            entry_count = daily_totals.entry_count + EXCLUDED.entry_count;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM daily_totals t
+        USING (SELECT DISTINCT user_id, entry_date FROM old_rows) r
+        WHERE t.user_id = r.user_id AND t.entry_date = r.entry_date AND t.entry_count <= 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER diary_entries_rollup_insert
+AFTER INSERT ON diary_entries
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION diary_entries_rollup();
+
+CREATE TRIGGER diary_entries_rollup_update
+AFTER UPDATE ON diary_entries
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION diary_entries_rollup();
+
+CREATE TRIGGER diary_entries_rollup_delete
+AFTER DELETE ON diary_entries
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION diary_entries_rollup();
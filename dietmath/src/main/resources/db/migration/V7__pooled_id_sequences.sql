@@ -0,0 +1,5 @@
+ALTER SEQUENCE user_weights_id_seq INCREMENT BY 50;
+SELECT setval('user_weights_id_seq', COALESCE((SELECT MAX(id) FROM user_weights), 0) + 50, false);
+
+ALTER SEQUENCE diary_entries_id_seq INCREMENT BY 50;
+SELECT setval('diary_entries_id_seq', COALESCE((SELECT MAX(id) FROM diary_entries), 0) + 50, false);
@@ -0,0 +1,80 @@
+CREATE SEQUENCE sync_change_seq;
+
+ALTER TABLE user_weights ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE diary_entries ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+UPDATE user_weights SET change_seq = nextval('sync_change_seq');
+UPDATE diary_entries SET change_seq = nextval('sync_change_seq');
+
+CREATE INDEX user_weights_user_change_seq_idx
+    ON user_weights (user_id, change_seq);
+
+CREATE INDEX diary_entries_user_change_seq_idx
+    ON diary_entries (user_id, change_seq);
+
+CREATE TABLE sync_tombstones (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    entity VARCHAR(16) NOT NULL CHECK (entity IN ('WEIGHT', 'DIARY')),
+    entity_id BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    PRIMARY KEY (user_id, entity, entity_id)
+);
+
+CREATE INDEX sync_tombstones_user_change_seq_idx
+    ON sync_tombstones (user_id, change_seq);
+
+-- Writers of one user take that user's row lock before drawing a sequence value and keep it until commit,
+-- so per user, change_seq values become visible in increasing order and a cursor never skips a row.
+CREATE OR REPLACE FUNCTION sync_next_change_seq(owner_id BIGINT)
+RETURNS BIGINT AS $$
+BEGIN
+    PERFORM 1 FROM users WHERE id = owner_id FOR NO KEY UPDATE;
+    IF NOT FOUND THEN
+        RETURN NULL;
+    END IF;
+    RETURN nextval('sync_change_seq');
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sync_set_change_seq()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_seq := COALESCE(sync_next_change_seq(NEW.user_id), 0);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sync_record_tombstone()
+RETURNS TRIGGER AS $$
+DECLARE
+    seq BIGINT;
+BEGIN
+    seq := sync_next_change_seq(OLD.user_id);
+    IF seq IS NOT NULL THEN
+        INSERT INTO sync_tombstones (user_id, entity, entity_id, change_seq)
+        VALUES (OLD.user_id, TG_ARGV[0], OLD.id, seq)
+        ON CONFLICT (user_id, entity, entity_id) DO UPDATE SET change_seq = EXCLUDED.change_seq;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER user_weights_change_seq
+BEFORE INSERT OR UPDATE ON user_weights
+FOR EACH ROW
+EXECUTE FUNCTION sync_set_change_seq();
+
+CREATE TRIGGER user_weights_tombstone
+AFTER DELETE ON user_weights
+FOR EACH ROW
+EXECUTE FUNCTION sync_record_tombstone('WEIGHT');
+
+CREATE TRIGGER diary_entries_change_seq
+BEFORE INSERT OR UPDATE ON diary_entries
+FOR EACH ROW
+EXECUTE FUNCTION sync_set_change_seq();
+
+CREATE TRIGGER diary_entries_tombstone
+AFTER DELETE ON diary_entries
+FOR EACH ROW
+EXECUTE FUNCTION sync_record_tombstone('DIARY');
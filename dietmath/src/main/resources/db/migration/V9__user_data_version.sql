@@ -0,0 +1,58 @@
+ALTER TABLE users
+    ADD COLUMN data_version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN data_changed_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+
+CREATE OR REPLACE FUNCTION users_bump_data_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE users u
+        SET data_version = u.data_version + 1, data_changed_at = clock_timestamp()
+        FROM (SELECT DISTINCT user_id FROM new_rows ORDER BY user_id) r
+        WHERE u.id = r.user_id;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE users u
+        SET data_version = u.data_version + 1, data_changed_at = clock_timestamp()
+        FROM (SELECT DISTINCT user_id FROM old_rows ORDER BY user_id) r
+        WHERE u.id = r.user_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER user_weights_data_version_insert
+AFTER INSERT ON user_weights
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER user_weights_data_version_update
+AFTER UPDATE ON user_weights
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER user_weights_data_version_delete
+AFTER DELETE ON user_weights
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER diary_entries_data_version_insert
+AFTER INSERT ON diary_entries
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER diary_entries_data_version_update
+AFTER UPDATE ON diary_entries
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
+
+CREATE TRIGGER diary_entries_data_version_delete
+AFTER DELETE ON diary_entries
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION users_bump_data_version();
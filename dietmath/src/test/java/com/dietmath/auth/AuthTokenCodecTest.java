@@ -0,0 +1,46 @@
+package com.dietmath.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class AuthTokenCodecTest {
+	private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+	private final AuthTokenCodec codec = new AuthTokenCodec(
+		"0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+
+	@Test
+	void roundTripsUserIdAndExpiry() {
+		String token = codec.encode(new AuthToken(42L, NOW.plusSeconds(3600)));
+
+		assertThat(codec.decode(token, NOW)).isEqualTo(new AuthToken(42L, NOW.plusSeconds(3600)));
+	}
+
+	@Test
+	void rejectsExpiredTokens() {
+		String token = codec.encode(new AuthToken(42L, NOW.plusSeconds(60)));
+
+		assertThat(codec.decode(token, NOW.plusSeconds(60))).isNull();
+	}
+
+	@Test
+	void rejectsTamperedUserId() {
+		String token = codec.encode(new AuthToken(42L, NOW.plusSeconds(3600)));
+		String tampered = Long.toString(43L, 36) + token.substring(token.indexOf('.'));
+
+		assertThat(codec.decode(tampered, NOW)).isNull();
+	}
+
+	@Test
+	void rejectsTokensSignedWithAnotherSecret() {
+		AuthTokenCodec other = new AuthTokenCodec("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8));
+		String token = other.encode(new AuthToken(42L, NOW.plusSeconds(3600)));
+
+		assertThat(codec.decode(token, NOW)).isNull();
+		assertThat(codec.decode("garbage", NOW)).isNull();
+	}
+}
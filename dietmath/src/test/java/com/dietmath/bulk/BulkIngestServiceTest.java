@@ -0,0 +1,32 @@
+package com.dietmath.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.dietmath.bulk.dto.BulkDiaryItem;
+
+class BulkIngestServiceTest {
+	private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+	@Test
+	void acceptsDiaryGramsUpToTheCap() {
+		assertThat(validate("10000.00")).isNull();
+		assertThat(validate("0.01")).isNull();
+	}
+
+	@Test
+	void rejectsDiaryGramsAboveTheCap() {
+		assertThat(validate("10000.01")).isEqualTo("Grams must be greater than 0 and at most 10000.");
+		assertThat(validate("99999999.99")).isNotNull();
+		assertThat(validate("0")).isNotNull();
+	}
+
+	private static String validate(String grams) {
+		return BulkIngestService.validateDiary(new BulkDiaryItem(1L, DAY, new BigDecimal(grams)), Set.of(1L));
+	}
+}
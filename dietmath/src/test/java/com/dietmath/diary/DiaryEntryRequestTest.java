@@ -0,0 +1,28 @@
+package com.dietmath.diary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.dietmath.diary.dto.DiaryEntryRequest;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+class DiaryEntryRequestTest {
+	private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+	@Test
+	void capsGramsAtTenKilograms() {
+		assertThat(validator.validate(request("10000.00"))).isEmpty();
+		assertThat(validator.validate(request("10000.01"))).isNotEmpty();
+		assertThat(validator.validate(request("99999999.99"))).isNotEmpty();
+	}
+
+	private static DiaryEntryRequest request(String grams) {
+		return new DiaryEntryRequest(1L, LocalDate.of(2026, 3, 2), new BigDecimal(grams));
+	}
+}
@@ -0,0 +1,51 @@
+package com.dietmath.diary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class FoodUsageTest {
+	private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+	@Test
+	void ranksRecentAndFrequentFoodsSeparately() {
+		FoodUsage usage = FoodUsage.builder()
+			.add(10, 5, DAY.minusDays(7))
+			.add(20, 1, DAY)
+			.add(30, 3, DAY.minusDays(1))
+			.build();
+
+		assertThat(usage.frequent(2)).containsExactly(10L, 30L);
+		assertThat(usage.recent(2)).containsExactly(20L, 30L);
+	}
+
+	@Test
+	void recordsUsesWithoutMutatingTheSnapshot() {
+		FoodUsage usage = FoodUsage.builder().add(10, 1, DAY.minusDays(3)).build();
+
+		FoodUsage updated = usage.withUse(10, DAY).withUse(40, DAY.minusDays(10));
+
+		assertThat(usage.uses(10)).isEqualTo(1);
+		assertThat(updated.uses(10)).isEqualTo(2);
+		assertThat(updated.recent(5)).containsExactly(10L, 40L);
+	}
+
+	@Test
+	void replacesTheWeakestFoodWhenFull() {
+		FoodUsage.Builder builder = FoodUsage.builder();
+		for (int i = 1; i <= FoodUsage.MAX_TRACKED_FOODS; i++) {
+			builder.add(i, 2, DAY);
+		}
+		builder.add(999, 2, DAY);
+		FoodUsage full = builder.build().withUse(1, DAY);
+
+		FoodUsage updated = full.withUse(500, DAY);
+
+		assertThat(updated.size()).isEqualTo(FoodUsage.MAX_TRACKED_FOODS);
+		assertThat(updated.uses(500)).isEqualTo(1);
+		assertThat(updated.uses(1)).isEqualTo(3);
+		assertThat(updated.uses(999)).isZero();
+	}
+}
@@ -0,0 +1,58 @@
+package com.dietmath.food;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+class BuiltinFoodCatalogTest {
+	@Test
+	void leavesBuiltinFoodsWithoutNutrientsOutOfTheNutrientTable() throws Exception {
+		BuiltinFoodCatalog catalog = load(380, new Float[] { 13f, 60f, 7f, 10f, 1f });
+
+		assertThat(catalog.contains(2)).isTrue();
+		assertThat(catalog.nutrients().indexOf(1)).isZero();
+		assertThat(catalog.nutrients().indexOf(2)).isNegative();
+	}
+
+	@Test
+	void derivesTheVersionFromTheCatalogContents() throws Exception {
+		Float[] oats = { 13f, 60f, 7f, 10f, 1f };
+
+		long version = load(380, oats).version();
+
+		assertThat(version).isNotZero();
+		assertThat(load(380, oats).version()).isEqualTo(version);
+		assertThat(load(381, oats).version()).isNotEqualTo(version);
+		assertThat(load(380, new Float[] { 14f, 60f, 7f, 10f, 1f }).version()).isNotEqualTo(version);
+	}
+
+	private static BuiltinFoodCatalog load(int oatCalories, Float[] oatNutrients) throws Exception {
+		Array nutrients = mock(Array.class);
+		when(nutrients.getArray()).thenReturn(oatNutrients);
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getLong("id")).thenReturn(1L, 2L);
+		when(rs.getString("name")).thenReturn("Oats", "Mystery stew");
+		when(rs.getInt("calories_per_100g")).thenReturn(oatCalories, 120);
+		when(rs.getArray("nutrients")).thenReturn(nutrients, (Array) null);
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			handler.processRow(rs);
+			handler.processRow(rs);
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+		BuiltinFoodCatalog catalog = new BuiltinFoodCatalog(jdbcTemplate);
+		catalog.reload();
+		return catalog;
+	}
+}
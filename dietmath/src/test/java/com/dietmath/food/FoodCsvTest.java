@@ -0,0 +1,32 @@
+package com.dietmath.food;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class FoodCsvTest {
+
+	@Test
+	void parsesQuotedFieldsWithCommasAndEscapedQuotes() {
+		List<String> fields = FoodCsv.parseLine("apple-raw,\"Apple, \"\"Gala\"\"\", 52");
+
+		assertThat(fields).containsExactly("apple-raw", "Apple, \"Gala\"", "52");
+	}
+
+	@Test
+	void rejectsUnterminatedQuotes() {
+		assertThatThrownBy(() -> FoodCsv.parseLine("apple-raw,\"Apple, 52"))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void quotesValuesForCopy() {
+		StringBuilder out = new StringBuilder();
+		FoodCsv.appendQuoted(out, "Chocolate \"dark\"");
+
+		assertThat(out).hasToString("\"Chocolate \"\"dark\"\"\"");
+	}
+}
@@ -0,0 +1,53 @@
+package com.dietmath.food;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.dietmath.food.dto.FoodSuggestion;
+
+class FoodPrefixIndexTest {
+	private final FoodPrefixIndex index = FoodPrefixIndex.builder("BUILTIN")
+		.add(1, "Apple, raw", 52)
+		.add(2, "Pineapple", 50)
+		.add(3, "Apple pie", 237)
+		.add(4, "Crème brûlée", 330)
+		.add(5, "Raw apple juice", 46)
+		.build();
+
+	@Test
+	void matchesWordPrefixesRankingNameStartsFirst() {
+		List<Long> ids = index.search("app", 10).stream().map(FoodSuggestion::id).toList();
+
+		assertThat(ids).containsExactly(1L, 3L, 5L);
+	}
+
+	@Test
+	void matchesAcrossWordsAndIgnoresAccentsAndPunctuation() {
+		assertThat(index.search("CREME BRU", 10)).extracting(FoodSuggestion::name).containsExactly("Crème brûlée");
+		assertThat(index.search("apple  raw", 10)).extracting(FoodSuggestion::id).containsExactly(1L);
+	}
+
+	@Test
+	void returnsEachFoodOnceAndHonorsTheLimit() {
+		assertThat(index.search("raw", 10)).extracting(FoodSuggestion::id).containsExactly(5L, 1L);
+		assertThat(index.search("a", 1)).hasSize(1);
+		assertThat(index.search("zzz", 10)).isEmpty();
+		assertThat(index.search("  ", 10)).isEmpty();
+	}
+
+	@Test
+	void ranksWholePrefixRangesLargerThanAScan() {
+		FoodPrefixIndex.Builder builder = FoodPrefixIndex.builder("BUILTIN");
+		for (int i = 1; i <= 5000; i++) {
+			builder.add(i, "Apple variety " + i, 52);
+		}
+		FoodPrefixIndex large = builder.add(9999, "Avocado", 160).build();
+
+		assertThat(large.search("a", 3)).extracting(FoodSuggestion::id).containsExactly(9999L, 1L, 2L);
+		assertThat(large.search("app", 2)).extracting(FoodSuggestion::id).containsExactly(1L, 2L);
+		assertThat(large.search("apple variety 4999", 5)).extracting(FoodSuggestion::id).containsExactly(4999L);
+	}
+}
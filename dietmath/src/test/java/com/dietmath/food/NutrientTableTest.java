@@ -0,0 +1,50 @@
+package com.dietmath.food;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class NutrientTableTest {
+	private final NutrientTable table = NutrientTable.builder()
+		.add(3, new Float[] { 10f, 20f, 5f, 2f, 1f })
+		.add(7, new Float[] { 1f, null, Float.NaN })
+		.add(9, null)
+		.build();
+
+	@Test
+	void looksUpRowsByFoodId() {
+		assertThat(table.size()).isEqualTo(3);
+		assertThat(table.indexOf(7)).isEqualTo(1);
+		assertThat(table.indexOf(4)).isNegative();
+		assertThat(table.get(0, Nutrient.CARBS)).isEqualTo(20f);
+	}
+
+	@Test
+	void storesMissingAndShortVectorsAsZero() {
+		assertThat(table.get(1, Nutrient.PROTEIN)).isEqualTo(1f);
+		assertThat(table.get(1, Nutrient.CARBS)).isZero();
+		assertThat(table.get(1, Nutrient.FAT)).isZero();
+		assertThat(table.get(1, Nutrient.SUGAR)).isZero();
+		assertThat(table.get(2, Nutrient.PROTEIN)).isZero();
+	}
+
+	@Test
+	void accumulatesScaledByGramsAtTheOffset() {
+		double[] totals = new double[2 * Nutrient.COUNT];
+
+		table.accumulate(0, 150, totals, Nutrient.COUNT);
+		table.accumulate(1, 50, totals, Nutrient.COUNT);
+
+		assertThat(totals[0]).isZero();
+		assertThat(totals[Nutrient.COUNT + Nutrient.PROTEIN.ordinal()]).isCloseTo(15.5, within(1e-9));
+		assertThat(totals[Nutrient.COUNT + Nutrient.CARBS.ordinal()]).isCloseTo(30, within(1e-9));
+	}
+
+	@Test
+	void rejectsIdsOutOfOrder() {
+		assertThatThrownBy(() -> NutrientTable.builder().add(5, null).add(5, null))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
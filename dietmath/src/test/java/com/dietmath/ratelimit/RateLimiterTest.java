@@ -0,0 +1,69 @@
+package com.dietmath.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+	private final AtomicLong clock = new AtomicLong(1_000);
+	private final RateLimiter limiter = new RateLimiter("test", 6, 3, 2, clock::get);
+
+	@Test
+	void allowsTheBurstThenOneRequestPerInterval() {
+		assertThat(limiter.tryAcquire("a")).isZero();
+		assertThat(limiter.tryAcquire("a")).isZero();
+		assertThat(limiter.tryAcquire("a")).isZero();
+		assertThat(limiter.tryAcquire("a")).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+		assertThat(limiter.tryAcquire("b")).isZero();
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+		assertThat(limiter.tryAcquire("a")).isZero();
+		assertThat(limiter.tryAcquire("a")).isPositive();
+		assertThat(limiter.rejected()).isEqualTo(2);
+	}
+
+	@Test
+	void evictsKeysOnceTheirBucketHasRefilled() {
+		limiter.tryAcquire("a");
+		limiter.tryAcquire("b");
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+		assertThat(limiter.evictIdle()).isZero();
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+		assertThat(limiter.evictIdle()).isEqualTo(2);
+		assertThat(limiter.size()).isZero();
+	}
+
+	@Test
+	void rejectsNewKeysWhenTheTableIsFullOfActiveKeys() {
+		limiter.tryAcquire("a");
+		limiter.tryAcquire("b");
+
+		assertThat(limiter.tryAcquire("c")).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+		assertThat(limiter.size()).isEqualTo(2);
+		assertThat(limiter.overflowed()).isEqualTo(1);
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+		assertThat(limiter.tryAcquire("c")).isZero();
+	}
+
+	@Test
+	void checkReportsTheWaitWithoutTakingAToken() {
+		limiter.tryAcquire("a");
+		limiter.tryAcquire("a");
+
+		assertThat(limiter.check("a")).isZero();
+		assertThat(limiter.check("a")).isZero();
+		assertThat(limiter.tryAcquire("a")).isZero();
+		assertThat(limiter.check("a")).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+		assertThat(limiter.check("unseen")).isZero();
+		assertThat(limiter.rejected()).isZero();
+	}
+}
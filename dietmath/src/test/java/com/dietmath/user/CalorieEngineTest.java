@@ -0,0 +1,59 @@
+package com.dietmath.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class CalorieEngineTest {
+	private final CalorieEngine engine = new CalorieEngine();
+
+	@Test
+	void computesBmiAndMaintenance() {
+		assertThat(engine.bmi(80.0, 180)).isCloseTo(24.69, within(0.01));
+		assertThat(engine.bmi(80.0, 0)).isNaN();
+		assertThat(engine.maintenance(80.0)).isEqualTo(2400.0);
+	}
+
+	@Test
+	void targetFallsBackToMaintenanceWhenGoalDatePassed() {
+		assertThat(engine.target(80.0, 75.0, 0)).isEqualTo(2400.0);
+		assertThat(engine.target(80.0, 75.0, 100)).isCloseTo(2400.0 - 385.0, within(1e-9));
+	}
+
+	@Test
+	void dynamicTrajectoryReachesGoalOnGoalDate() {
+		CalorieTrajectory trajectory = new CalorieTrajectory(8);
+		engine.fillTrajectory(CalorieStrategy.DYNAMIC, 80.0, 80.0, 75.0, 100, 180, trajectory);
+
+		assertThat(trajectory.length()).isEqualTo(180);
+		assertThat(trajectory.target(0)).isCloseTo(engine.target(80.0, 75.0, 100), within(1e-9));
+		assertThat(trajectory.weight(100)).isCloseTo(75.0, within(1e-9));
+		assertThat(trajectory.target(150)).isCloseTo(engine.maintenance(75.0), within(1e-9));
+	}
+
+	@Test
+	void fixedTrajectoryUsesBaseWeightForTargets() {
+		CalorieTrajectory trajectory = new CalorieTrajectory(30);
+		engine.fillTrajectory(CalorieStrategy.FIXED, 78.0, 80.0, 75.0, 60, 30, trajectory);
+
+		assertThat(trajectory.weight(0)).isEqualTo(78.0);
+		assertThat(trajectory.target(0)).isCloseTo(engine.target(80.0, 75.0, 60), within(1e-9));
+		assertThat(trajectory.target(10)).isCloseTo(engine.target(80.0, 75.0, 50), within(1e-9));
+	}
+
+	@Test
+	void dailyTargetFallsBackToMaintenanceWithoutAnOpenGoal() {
+		LocalDate today = LocalDate.of(2026, 3, 1);
+
+		assertThat(engine.dailyTarget(CalorieStrategy.DYNAMIC, 80.0, null, null, today))
+			.isEqualTo(new DailyTarget(DailyTarget.Kind.NO_GOAL, CalorieStrategy.DYNAMIC, 2400.0));
+		assertThat(engine.dailyTarget(CalorieStrategy.FIXED, 80.0, 75.0, today, today))
+			.isEqualTo(new DailyTarget(DailyTarget.Kind.GOAL_PASSED, CalorieStrategy.FIXED, 2400.0));
+		DailyTarget target = engine.dailyTarget(CalorieStrategy.DYNAMIC, 80.0, 75.0, today.plusDays(100), today);
+		assertThat(target.kind()).isEqualTo(DailyTarget.Kind.GOAL);
+		assertThat(target.calories()).isCloseTo(engine.target(80.0, 75.0, 100), within(1e-9));
+	}
+}
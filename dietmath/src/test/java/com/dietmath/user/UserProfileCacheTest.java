@@ -0,0 +1,30 @@
+package com.dietmath.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class UserProfileCacheTest {
+	private final UserProfileCache cache = new UserProfileCache(10);
+	private final UserProfileSnapshot snapshot = new UserProfileSnapshot(new User("ada", "hash"), null, null, null,
+		null);
+
+	@Test
+	void cachesALoadWhenNothingChangedWhileItRan() {
+		long generation = cache.generation();
+
+		cache.putIfUnchanged(snapshot, generation);
+
+		assertThat(cache.stats().size()).isEqualTo(1);
+	}
+
+	@Test
+	void dropsALoadThatRacedWithAnEviction() {
+		long generation = cache.generation();
+		cache.evict(1L);
+
+		cache.putIfUnchanged(snapshot, generation);
+
+		assertThat(cache.stats().size()).isZero();
+	}
+}
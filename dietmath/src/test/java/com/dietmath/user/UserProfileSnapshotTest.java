@@ -0,0 +1,38 @@
+package com.dietmath.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.dietmath.sync.ContentVersion;
+
+class UserProfileSnapshotTest {
+	private static final Instant UPDATED = Instant.parse("2026-01-05T08:00:00Z");
+
+	@Test
+	void isCurrentOnlyWhenNoOlderThanTheDatabaseVersion() {
+		UserProfileSnapshot snapshot = snapshot(version(7, UPDATED));
+
+		assertThat(snapshot.isCurrent(version(7, UPDATED))).isTrue();
+		assertThat(snapshot.isCurrent(version(6, UPDATED))).isTrue();
+		assertThat(snapshot.isCurrent(version(8, UPDATED))).isFalse();
+		assertThat(snapshot.isCurrent(version(7, UPDATED.plusMillis(1)))).isFalse();
+	}
+
+	@Test
+	void locallyChangedSnapshotsAreNeverCurrent() {
+		UserProfileSnapshot snapshot = snapshot(version(7, UPDATED)).withUser(new User("ada", "hash"));
+
+		assertThat(snapshot.isCurrent(version(0, Instant.EPOCH))).isFalse();
+	}
+
+	private static UserProfileSnapshot snapshot(ContentVersion version) {
+		return new UserProfileSnapshot(new User("ada", "hash"), null, null, null, version);
+	}
+
+	private static ContentVersion version(long dataVersion, Instant updatedAt) {
+		return new ContentVersion(1L, updatedAt, dataVersion, updatedAt);
+	}
+}
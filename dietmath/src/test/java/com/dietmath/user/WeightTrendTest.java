@@ -0,0 +1,46 @@
+package com.dietmath.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class WeightTrendTest {
+	private static final Instant START = Instant.parse("2026-01-05T07:00:00Z");
+
+	@Test
+	void closesTheDailyShareOfTheGapPerDay() {
+		WeightTrend trend = WeightTrend.first(1, 80, START).next(2, 79, START.plus(Duration.ofDays(1)));
+
+		assertThat(trend.trendKg()).isCloseTo(79.9, within(1e-9));
+		assertThat(trend.dailyRateKg()).isCloseTo(-0.01, within(1e-9));
+		assertThat(trend.samples()).isEqualTo(2);
+		assertThat(trend.lastWeightId()).isEqualTo(2);
+	}
+
+	@Test
+	void longerGapsMoveTheTrendFurther() {
+		WeightTrend base = WeightTrend.first(1, 80, START);
+
+		double afterDay = base.next(2, 78, START.plus(Duration.ofDays(1))).trendKg();
+		double afterWeek = base.next(2, 78, START.plus(Duration.ofDays(7))).trendKg();
+
+		assertThat(afterWeek).isLessThan(afterDay);
+		assertThat(base.next(2, 78, START).trendKg()).isEqualTo(80);
+	}
+
+	@Test
+	void settlesOnASteadyLossRate() {
+		WeightTrend trend = WeightTrend.first(1, 90, START);
+		for (int day = 1; day <= 200; day++) {
+			trend = trend.next(day + 1, 90 - day * 0.1, START.plus(Duration.ofDays(day)));
+		}
+
+		assertThat(trend.weeklyRateKg()).isCloseTo(-0.7, within(1e-3));
+		assertThat(trend.accepts(START)).isFalse();
+		assertThat(trend.accepts(trend.lastRecordedAt())).isTrue();
+	}
+}
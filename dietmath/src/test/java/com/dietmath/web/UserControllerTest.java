@@ -0,0 +1,23 @@
+package com.dietmath.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class UserControllerTest {
+	@Test
+	void roundsToOneDecimalHalfUp() {
+		assertThat(UserController.roundToOneDecimal(2.45)).isEqualTo("2.5");
+		assertThat(UserController.roundToOneDecimal(24.65)).isEqualTo("24.7");
+		assertThat(UserController.roundToOneDecimal(2.44)).isEqualTo("2.4");
+		assertThat(UserController.roundToOneDecimal(80)).isEqualTo("80.0");
+	}
+
+	@Test
+	void roundsToWholeHalfUpAwayFromZero() {
+		assertThat(UserController.roundToWhole(1234.5)).isEqualTo("1235");
+		assertThat(UserController.roundToWhole(-1234.5)).isEqualTo("-1235");
+		assertThat(UserController.roundToWhole(-1234.4)).isEqualTo("-1234");
+		assertThat(UserController.roundToWhole(2000)).isEqualTo("2000");
+	}
+}
@@ -0,0 +1,14 @@
+#!/bin/sh
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+	until PGPASSWORD=replicator pg_basebackup -h db -U replicator -D "$PGDATA" -R -X stream; do
+		echo "Waiting for the primary to accept replication connections..."
+		rm -rf "${PGDATA:?}"/*
+		sleep 2
+	done
+	chown -R postgres:postgres "$PGDATA"
+	chmod 700 "$PGDATA"
+fi
+
+exec docker-entrypoint.sh postgres -c hot_standby=on